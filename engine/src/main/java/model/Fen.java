@@ -0,0 +1,165 @@
+package model;
+
+import model.pieces.Bishop;
+import model.pieces.King;
+import model.pieces.Knight;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+import model.pieces.Queen;
+import model.pieces.Rook;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads positions in Forsyth-Edwards Notation (ex. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"), the
+ * notation used by the reference positions of other engines. Only the pieces, the player to move, the castling rights
+ * and the en passant square are read (the move counters are not kept by the game data)
+ */
+public final class Fen {
+    private static final int PIECES = 0;
+    private static final int COLOUR_TO_MOVE = 1;
+    private static final int CASTLING_RIGHTS = 2;
+    private static final int EN_PASSANT_SQUARE = 3;
+
+    private Fen() {
+    }
+
+    /**
+     * @return the game data of the position
+     * @throws IllegalArgumentException if the notation is not valid or gives a castling right to a king or rook that
+     *                                  is not on its starting square
+     */
+    @NotNull
+    public static GameData load(@NotNull String fen) {
+        String[] fields = getFields(fen);
+        BoardMap board = new BoardMap();
+        String[] rows = fields[PIECES].split("/");
+        if (rows.length != Position.LIMIT) throw new IllegalArgumentException("Not " + Position.LIMIT + " rows: " + fen);
+
+        //The first row is black's side, like the rows of the board
+        for (int row = 0; row < Position.LIMIT; row++) {
+            int column = 0;
+
+            for (char character : rows[row].toCharArray()) {
+                if (Character.isDigit(character)) {
+                    column += character - '0';
+                } else {
+                    if (column >= Position.LIMIT) throw new IllegalArgumentException("Row " + row + " is too long: " + fen);
+                    board.add(new Position(row, column++), createPiece(character));
+                }
+            }
+
+            if (column != Position.LIMIT) throw new IllegalArgumentException("Row " + row + " is not " + Position.LIMIT + " squares: " + fen);
+        }
+
+        GameData gameData = new GameData(board);
+        gameData.setState(getColourToMove(fen), getCastlingRights(fields[CASTLING_RIGHTS]),
+                getEnPassantSquare(fields[EN_PASSANT_SQUARE]));
+        return gameData;
+    }
+
+    /**
+     * @return the player to move in the position
+     * @throws IllegalArgumentException if the notation is not valid
+     */
+    @NotNull
+    public static Colour getColourToMove(@NotNull String fen) {
+        switch (getFields(fen)[COLOUR_TO_MOVE]) {
+            case "w":
+                return Colour.WHITE;
+            case "b":
+                return Colour.BLACK;
+            default:
+                throw new IllegalArgumentException("Unknown player to move: " + fen);
+        }
+    }
+
+    @NotNull
+    private static String[] getFields(@NotNull String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length <= EN_PASSANT_SQUARE) throw new IllegalArgumentException("Missing fields: " + fen);
+        return fields;
+    }
+
+    /**
+     * White's pieces are upper case, black's are lower case
+     */
+    @NotNull
+    private static Piece createPiece(char character) {
+        Colour colour = Character.isUpperCase(character) ? Colour.WHITE : Colour.BLACK;
+
+        switch (Character.toLowerCase(character)) {
+            case 'p':
+                return new Pawn(colour);
+            case 'n':
+                return new Knight(colour);
+            case 'b':
+                return new Bishop(colour);
+            case 'r':
+                return new Rook(colour);
+            case 'q':
+                return new Queen(colour);
+            case 'k':
+                return new King(colour);
+            default:
+                throw new IllegalArgumentException("Unknown piece: " + character);
+        }
+    }
+
+    private static int getCastlingRights(@NotNull String field) {
+        int castlingRights = 0;
+
+        for (char character : field.toCharArray()) {
+            switch (character) {
+                case 'K':
+                    castlingRights |= GameData.getCastlingRight(Colour.WHITE, true);
+                    break;
+                case 'Q':
+                    castlingRights |= GameData.getCastlingRight(Colour.WHITE, false);
+                    break;
+                case 'k':
+                    castlingRights |= GameData.getCastlingRight(Colour.BLACK, true);
+                    break;
+                case 'q':
+                    castlingRights |= GameData.getCastlingRight(Colour.BLACK, false);
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown castling right: " + field);
+            }
+        }
+
+        return castlingRights;
+    }
+
+    private static int getEnPassantSquare(@NotNull String field) {
+        if (field.equals("-")) return BoardMap.NO_SQUARE;
+        return parseSquare(field);
+    }
+
+    /**
+     * @param square a square in algebraic notation (ex. "e3")
+     * @return the index of the square
+     */
+    private static int parseSquare(@NotNull String square) {
+        if (square.length() != 2) throw new IllegalArgumentException("Not a square: " + square);
+
+        int column = square.charAt(0) - 'a';
+        int row = Position.LIMIT - (square.charAt(1) - '0');
+        if (column < 0 || column >= Position.LIMIT || row < 0 || row >= Position.LIMIT)
+            throw new IllegalArgumentException("Not a square: " + square);
+
+        return row * Position.LIMIT + column;
+    }
+
+    /**
+     * @return the square in algebraic notation (ex. "e3")
+     */
+    @NotNull
+    static String toSquare(int square) {
+        return "" + (char) ('a' + square % Position.LIMIT) + (Position.LIMIT - square / Position.LIMIT);
+    }
+}
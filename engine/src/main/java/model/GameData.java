@@ -1,20 +1,67 @@
 package model;
 
+import model.moves.EncodedMove;
 import model.moves.Move;
+import model.moves.MoveList;
 import model.pieces.King;
+import model.pieces.Pawn;
 import model.pieces.Piece;
+import model.pieces.PieceType;
+import model.util.Accumulator;
+import model.util.Bitboard;
 import model.util.BoardMap;
 import model.util.Colour;
+import model.util.Network;
+import model.util.PieceSquareTables;
 import model.util.Position;
+import model.util.Zobrist;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 
 /**
- * Represents the board state (piece's positions) and the pieces that were eaten
+ * Represents the board state (piece's positions, castling rights and en passant square) and the pieces that were eaten
+ * <p>
+ * Moves are applied with {@link #makeMove(int)} and undone with {@link #undoMove()}. The state needed to undo a move is kept
+ * in a stack of undo records (one per applied move) that are reused, such that applying a move allocates nothing.
  */
 public class GameData implements Serializable {
+    /**
+     * Bitboard with every square. Used to generate the moves of all the pieces
+     */
+    private static final long ALL_SQUARES = -1L;
+
+    /**
+     * The column of the kings and rooks at the start of the game
+     */
+    private static final int KING_COLUMN = 4;
+    private static final int SHORT_ROOK_COLUMN = Position.LIMIT - 1;
+    private static final int LONG_ROOK_COLUMN = 0;
+
+    /**
+     * For each square, the castling rights that are kept when a piece moves from or to that square.
+     * Moving the king or a rook (or eating a rook) from its starting square removes the rights
+     */
+    private static final int[] CASTLING_RIGHTS_KEPT = new int[Position.LIMIT * Position.LIMIT];
+
+    static {
+        Arrays.fill(CASTLING_RIGHTS_KEPT, -1);
+
+        for (Colour colour : Colour.values()) {
+            int homeRow = getHomeRow(colour) * Position.LIMIT;
+            CASTLING_RIGHTS_KEPT[homeRow + KING_COLUMN] = ~(getCastlingRight(colour, true) | getCastlingRight(colour, false));
+            CASTLING_RIGHTS_KEPT[homeRow + SHORT_ROOK_COLUMN] = ~getCastlingRight(colour, true);
+            CASTLING_RIGHTS_KEPT[homeRow + LONG_ROOK_COLUMN] = ~getCastlingRight(colour, false);
+        }
+    }
+
     @NotNull
     private final BoardMap board;
 
@@ -32,6 +79,58 @@ public class GameData implements Serializable {
     @NotNull
     private final EnumMap<Colour, King> kings = new EnumMap<>(Colour.class);
 
+    /**
+     * One bit per colour and side (see {@link #getCastlingRight(Colour, boolean)}).
+     * A right is lost when the king or the rook of that side moves
+     */
+    private int castlingRights = 0;
+
+    /**
+     * The square skipped by a pawn that just moved by two ({@link BoardMap#NO_SQUARE} if the last move was not a pawn moving by two)
+     */
+    private int enPassantSquare = BoardMap.NO_SQUARE;
+
+    /**
+     * The player to move (white at the start of the game). Changed by every applied move and null move
+     */
+    @NotNull
+    private Colour colourToMove = Colour.WHITE;
+
+    /**
+     * The undo records of the applied moves. Records past undoCount are unused and kept to be reused
+     */
+    @NotNull
+    private final ArrayList<UndoRecord> undoRecords = new ArrayList<>();
+
+    private int undoCount = 0;
+
+    /**
+     * Buffer for the moves generated by {@link #isLegal(Colour, int)}
+     */
+    @Nullable
+    private transient MoveList legalityMoves;
+
+    /**
+     * The Zobrist hash of the current position (see {@link Zobrist}). Updated incrementally when moves are applied
+     */
+    private long hash;
+
+    /**
+     * The Zobrist hash of the pawns only (used to cache the evaluation of the pawn structure, which rarely changes)
+     */
+    private long pawnHash;
+
+    //The evaluation of the position as running sums (see PieceSquareTables). Updated incrementally when moves are applied
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    /**
+     * The first layer of the evaluation network, updated incrementally when moves are applied (null if no network is used)
+     */
+    @Nullable
+    private transient Accumulator accumulator;
+
     public GameData(@NotNull BoardMap boardMap) {
         this.board = boardMap;
 
@@ -39,14 +138,211 @@ public class GameData implements Serializable {
             eatenPieces.put(colour, new Stack<>());
         }
 
-        for (Piece piece : boardMap.iteratePieces()) {
-            if (piece instanceof King) {
-                if (kings.containsKey(piece.getColour()))
-                    throw new RuntimeException("There are two kings for the same player");
+        for (Colour colour : Colour.values()) {
+            long kingSquares = boardMap.getBitboard(PieceType.KING, colour);
+
+            if (Bitboard.count(kingSquares) > 1)
+                throw new RuntimeException("There are two kings for the same player");
+
+            if (kingSquares != 0) kings.put(colour, (King) boardMap.getPiece(Bitboard.firstSquare(kingSquares)));
+        }
+
+        castlingRights = computePossibleCastlingRights();
+        hash = computeHash();
+        pawnHash = computePawnHash();
+        middlegameScore = computeMiddlegameScore();
+        endgameScore = computeEndgameScore();
+        phase = computePhase();
+    }
+
+    /**
+     * Computes the hash from scratch
+     *
+     * @return the hash of the current position
+     */
+    long computeHash() {
+        long result = Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if (colourToMove == Colour.BLACK) result ^= Zobrist.blackToMove();
+
+        for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) result ^= Zobrist.piece(piece.getType(), piece.getColour(), square);
+        }
+
+        return result;
+    }
 
-                kings.put(piece.getColour(), (King) piece);
+    /**
+     * Computes the pawn hash from scratch
+     *
+     * @return the XOR of the keys of the pawns
+     */
+    long computePawnHash() {
+        long result = 0;
+
+        for (Colour colour : Colour.values()) {
+            for (long pawns = board.getBitboard(PieceType.PAWN, colour); pawns != 0; pawns = Bitboard.withoutFirstSquare(pawns)) {
+                result ^= Zobrist.piece(PieceType.PAWN, colour, Bitboard.firstSquare(pawns));
             }
         }
+
+        return result;
+    }
+
+    /**
+     * Computes the middlegame score from scratch
+     *
+     * @return the sum of the middlegame values of the pieces (see {@link PieceSquareTables#middlegame(PieceType, Colour, int)})
+     */
+    int computeMiddlegameScore() {
+        int result = 0;
+
+        for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) result += PieceSquareTables.middlegame(piece.getType(), piece.getColour(), square);
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the endgame score from scratch
+     *
+     * @return the sum of the endgame values of the pieces (see {@link PieceSquareTables#endgame(PieceType, Colour, int)})
+     */
+    int computeEndgameScore() {
+        int result = 0;
+
+        for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) result += PieceSquareTables.endgame(piece.getType(), piece.getColour(), square);
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the phase from scratch
+     *
+     * @return the sum of the phases of the pieces (see {@link PieceSquareTables#phase(PieceType)})
+     */
+    int computePhase() {
+        int result = 0;
+
+        for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) result += PieceSquareTables.phase(piece.getType());
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the material and piece-square score of the middlegame (positive is good for white)
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return the material and piece-square score of the endgame (positive is good for white)
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return how far the game is from the endgame ({@link PieceSquareTables#MAX_PHASE} at the start, 0 with only pawns and kings)
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the Zobrist hash of the current position (pieces, castling rights, en passant square and side to move)
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the Zobrist hash of the pawns only (the same for every position with the same pawns)
+     */
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    /**
+     * The undo records form a stack of hashes aligned with {@link #getPastMoves()} (the moves applied by the search come after)
+     *
+     * @param moveIndex the index of an applied move
+     * @return the hash of the position before this move was applied
+     */
+    public long getHashBefore(int moveIndex) {
+        if (moveIndex < 0 || moveIndex >= undoCount) throw new IndexOutOfBoundsException("No applied move at: " + moveIndex);
+        return undoRecords.get(moveIndex).hash;
+    }
+
+    /**
+     * @return true if the current position already happened with the same player to move
+     */
+    public boolean isRepetition() {
+        for (int i = undoCount - 1; i >= 0; i--) {
+            UndoRecord record = undoRecords.get(i);
+
+            //Positions before a capture or a pawn move can not happen again. A null move is not a real move so the positions before it don't count
+            if (record.move == EncodedMove.NONE || EncodedMove.isCapture(record.move) ||
+                    EncodedMove.getPiece(record.move) == PieceType.PAWN) return false;
+
+            //The same player is to move every two moves
+            if ((undoCount - i) % 2 == 0 && record.hash == hash) return true;
+        }
+
+        return false;
+    }
+
+    private boolean isAtSquare(@NotNull PieceType type, @NotNull Colour colour, int row, int column) {
+        return Bitboard.contains(board.getBitboard(type, colour), row * Position.LIMIT + column);
+    }
+
+    /**
+     * Copies the game data by serializing it (the same way a game is saved) such that the copy shares no pieces with this
+     * game data. Used to search the same position on several threads
+     *
+     * @return a deep copy of the game data
+     */
+    @NotNull
+    public GameData copy() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(this);
+            out.close();
+
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            return (GameData) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not copy the game data", e);
+        }
+    }
+
+    /**
+     * Starts keeping the first layer of the network up to date as moves are applied. Not copied by {@link #copy()}
+     * (nor saved with the game)
+     *
+     * @param network the evaluation network (null to stop updating it)
+     */
+    public void setNetwork(@Nullable Network network) {
+        if (network == null) accumulator = null;
+        else if (accumulator == null || accumulator.getNetwork() != network) accumulator = new Accumulator(network, board);
+    }
+
+    /**
+     * @return the first layer of the network for the current position (null if no network is set)
+     */
+    @Nullable
+    public Accumulator getAccumulator() {
+        return accumulator;
     }
 
     @NotNull
@@ -68,6 +364,99 @@ public class GameData implements Serializable {
      */
     @NotNull
     public Collection<Move> getPossibleLegalMoves(Colour colour) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(this, colour, ALL_SQUARES, moves);
+        return toMoves(moves);
+    }
+
+    /**
+     * @param start the position of the piece to move
+     * @return the legal moves of the piece at this position (empty if there is no piece)
+     */
+    @NotNull
+    public Collection<Move> getPossibleLegalMoves(@NotNull Position start) {
+        MoveList moves = new MoveList();
+
+        Piece piece = board.getPiece(start);
+        if (piece != null) MoveGenerator.generateLegalMoves(this, piece.getColour(), Bitboard.of(start.getIndex()), moves);
+
+        return toMoves(moves);
+    }
+
+    /**
+     * Generates the legal moves without allocating (used by the search)
+     *
+     * @param moves the list where the encoded moves are added (see {@link model.moves.EncodedMove})
+     */
+    public void generateLegalMoves(@NotNull Colour colour, @NotNull MoveList moves) {
+        MoveGenerator.generateLegalMoves(this, colour, ALL_SQUARES, moves);
+    }
+
+    /**
+     * Converts the encoded moves to move objects. Only promotions to a queen are kept since a player picks a move by its destination
+     */
+    @NotNull
+    private static Collection<Move> toMoves(@NotNull MoveList moves) {
+        Collection<Move> result = new ArrayList<>(moves.size());
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            if (EncodedMove.getFlag(move) == EncodedMove.PROMOTION && EncodedMove.getPromotion(move) != PieceType.QUEEN)
+                continue;
+
+            result.add(EncodedMove.toMove(move));
+        }
+
+        return result;
+    }
+
+    /**
+     * Only generates the captures and the promotions to a queen (see {@link MoveGenerator#generateLegalCaptures(GameData, Colour, MoveList)})
+     *
+     * @param moves the list where the encoded moves are added
+     */
+    public void generateLegalCaptures(@NotNull Colour colour, @NotNull MoveList moves) {
+        MoveGenerator.generateLegalCaptures(this, colour, moves);
+    }
+
+    /**
+     * Generates the moves that are not captures (see {@link MoveGenerator#generateLegalQuietMoves(GameData, Colour, MoveList)})
+     *
+     * @param moves the list where the encoded moves are added
+     */
+    public void generateLegalQuietMoves(@NotNull Colour colour, @NotNull MoveList moves) {
+        MoveGenerator.generateLegalQuietMoves(this, colour, moves);
+    }
+
+    /**
+     * @param move an encoded move, possibly from another position (ex. a move found in a table)
+     * @return true if the move is a legal move of this colour in the current position
+     */
+    public boolean isLegal(@NotNull Colour colour, int move) {
+        int from = EncodedMove.getFrom(move);
+        Piece piece = board.getPiece(from);
+        if (piece == null || piece.getColour() != colour) return false;
+
+        //Only the moves of the piece are generated
+        if (legalityMoves == null) legalityMoves = new MoveList();
+        MoveList moves = legalityMoves;
+        moves.clear();
+        MoveGenerator.generateLegalMoves(this, colour, Bitboard.of(from), moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * The old way of generating legal moves: applies every move from {@link Piece#generatePossibleMoves(GameData, Position)} and
+     * checks if the king is left in check. Much slower than {@link #getPossibleLegalMoves(Colour)}, kept as a debug cross-check for the {@link MoveGenerator}
+     */
+    @NotNull
+    public Collection<Move> getPossibleLegalMovesByFiltering(Colour colour) {
         return filterOnlyLegal(getAllPossibleMoves(colour), colour);
     }
 
@@ -94,36 +483,308 @@ public class GameData implements Serializable {
         return legalMoves;
     }
 
+    /**
+     * @return true if the king of this colour is attacked
+     */
+    public boolean isInCheck(@NotNull Colour colour) {
+        long king = board.getBitboard(PieceType.KING, colour);
+        return king != Bitboard.EMPTY && board.isSquareAttacked(Bitboard.firstSquare(king), colour.getOpposite());
+    }
+
     /**
      * @return true if the piece is being attacked by another piece
      */
     boolean isPieceAttacked(@NotNull Piece piece) {
-        return isPositionAttacked(board.getPosition(piece), piece.getColour() == Colour.WHITE ? Colour.BLACK : Colour.WHITE);
+        return board.isSquareAttacked(board.getSquare(piece), piece.getColour().getOpposite());
     }
 
-    public boolean isPositionAttacked(Position position, Colour byWho) {
-        for (Piece attacker : board.iteratePieces()) {
-            //If piece opposite color check if attacks position
-            if (attacker.getColour() == byWho && attacker.isAttackingPosition(this, position)) {
-                return true;
-            }
-        }
-
-        return false;
+    /**
+     * Looks outward from the position (see {@link BoardMap#isSquareAttacked(int, Colour)}) instead of asking every piece
+     *
+     * @return true if a piece of colour byWho attacks the position
+     */
+    public boolean isPositionAttacked(@NotNull Position position, @NotNull Colour byWho) {
+        return board.isSquareAttacked(position.getIndex(), byWho);
     }
 
     @NotNull
     private Set<Move> getAllPossibleMoves(Colour colour) {
         Set<Move> moves = new HashSet<>();
 
-        for (Piece piece : board.iteratePieces()) {
-            if (piece.getColour() == colour) {
-                moves.addAll(piece.generatePossibleMoves(this, board.getPosition(piece)));
-            }
+        //Loop through the squares of this colour
+        long squares = board.getOccupancy(colour);
+
+        while (squares != 0) {
+            int square = Bitboard.firstSquare(squares);
+            moves.addAll(board.getPiece(square).generatePossibleMoves(this, Position.fromIndex(square)));
+            squares = Bitboard.withoutFirstSquare(squares);
         }
+
         return moves;
     }
 
+    /**
+     * A pawn can be eaten en passant right after it moved forward by two. It is eaten by moving to the square it skipped
+     *
+     * @param forWho the colour of the pawns that would eat en passant
+     * @return the square that the pawns of this colour can move to to eat en passant ({@link BoardMap#NO_SQUARE} if none)
+     */
+    public int getEnPassantSquare(@NotNull Colour forWho) {
+        if (enPassantSquare == BoardMap.NO_SQUARE) return BoardMap.NO_SQUARE;
+
+        //The pawn that moved by two is one square further than the skipped square (from the point of view of forWho)
+        Piece pawn = board.getPiece(enPassantSquare + (forWho == Colour.WHITE ? Position.LIMIT : -Position.LIMIT));
+        return pawn != null && pawn.getColour() != forWho ? enPassantSquare : BoardMap.NO_SQUARE;
+    }
+
+    /**
+     * @param shortSide true for castling on the side of the king (short castling), false for the side of the queen
+     * @return true if neither the king nor the rook of this side have moved
+     */
+    public boolean hasCastlingRight(@NotNull Colour colour, boolean shortSide) {
+        return (castlingRights & getCastlingRight(colour, shortSide)) != 0;
+    }
+
+    static int getCastlingRight(@NotNull Colour colour, boolean shortSide) {
+        return 1 << (colour.ordinal() * 2 + (shortSide ? 0 : 1));
+    }
+
+    /**
+     * A player can castle if its king and rook are on their starting squares
+     *
+     * @return the castling rights allowed by the position of the kings and rooks
+     */
+    private int computePossibleCastlingRights() {
+        int possibleRights = 0;
+
+        for (Colour colour : Colour.values()) {
+            int homeRow = getHomeRow(colour);
+            if (!isAtSquare(PieceType.KING, colour, homeRow, KING_COLUMN)) continue;
+
+            if (isAtSquare(PieceType.ROOK, colour, homeRow, SHORT_ROOK_COLUMN))
+                possibleRights |= getCastlingRight(colour, true);
+            if (isAtSquare(PieceType.ROOK, colour, homeRow, LONG_ROOK_COLUMN))
+                possibleRights |= getCastlingRight(colour, false);
+        }
+
+        return possibleRights;
+    }
+
+    /**
+     * Replaces the player to move, the castling rights found from the position of the kings and rooks and the en passant
+     * square (used to load a position that is not the start of a game, see {@link Fen})
+     *
+     * @param castlingRights  the rights (see {@link #getCastlingRight(Colour, boolean)})
+     * @param enPassantSquare the square skipped by the pawn that just moved by two ({@link BoardMap#NO_SQUARE} if none)
+     * @throws IllegalArgumentException if a castling right is given without the king and rook on their starting squares
+     */
+    void setState(@NotNull Colour colourToMove, int castlingRights, int enPassantSquare) {
+        if ((castlingRights & ~computePossibleCastlingRights()) != 0)
+            throw new IllegalArgumentException("Castling rights without the king and rook on their starting squares");
+
+        this.colourToMove = colourToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        hash = computeHash();
+    }
+
+    /**
+     * @return the player to move
+     */
+    @NotNull
+    public Colour getColourToMove() {
+        return colourToMove;
+    }
+
+    /**
+     * @return the row of the king and rooks at the start of the game
+     */
+    private static int getHomeRow(@NotNull Colour colour) {
+        return colour == Colour.WHITE ? Position.LIMIT - 1 : 0;
+    }
+
+    /**
+     * Applies a move. Does not verify that the move is legal. The move can be undone with {@link #undoMove()}
+     *
+     * @param move the encoded move (see {@link EncodedMove})
+     */
+    public void makeMove(int move) {
+        int from = EncodedMove.getFrom(move);
+        int to = EncodedMove.getTo(move);
+        int flag = EncodedMove.getFlag(move);
+
+        UndoRecord record = pushUndoRecord();
+        record.move = move;
+        record.castlingRights = castlingRights;
+        record.enPassantSquare = enPassantSquare;
+        record.hash = hash;
+        record.pawnHash = pawnHash;
+        record.middlegameScore = middlegameScore;
+        record.endgameScore = endgameScore;
+        record.phase = phase;
+        if (accumulator != null) accumulator.push();
+
+        Piece piece = board.getPiece(from);
+        Colour colour = piece.getColour();
+        PieceType type = piece.getType();
+
+        //The old castling rights and en passant square are XOR-ed out, the new ones are XOR-ed in at the end
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.blackToMove();
+
+        //Remove the eaten piece from the board
+        int eatenSquare = flag == EncodedMove.EN_PASSANT ? getEnPassantEatenSquare(from, to) : to;
+        Piece eaten = board.removePiece(eatenSquare);
+        record.eaten = eaten;
+
+        if (eaten != null) {
+            eatenPieces.get(eaten.getColour()).push(eaten);
+            hash ^= Zobrist.piece(eaten.getType(), eaten.getColour(), eatenSquare);
+            if (eaten.getType() == PieceType.PAWN) pawnHash ^= Zobrist.piece(PieceType.PAWN, eaten.getColour(), eatenSquare);
+            removeFromScores(eaten.getType(), eaten.getColour(), eatenSquare);
+        }
+
+        board.movePiece(from, to);
+
+        if (flag == EncodedMove.PROMOTION) {
+            //The pawn is taken off the board while it is promoted since promoting changes the bitboard it belongs to
+            board.removePiece(to);
+            ((Pawn) piece).promote(EncodedMove.getPromotion(move));
+            board.add(to, piece);
+        } else if (flag == EncodedMove.CASTLING) {
+            int rookStart = getCastlingRookStart(to, from);
+            int rookEnd = getCastlingRookEnd(to, from);
+            board.movePiece(rookStart, rookEnd);
+            hash ^= Zobrist.piece(PieceType.ROOK, colour, rookStart) ^ Zobrist.piece(PieceType.ROOK, colour, rookEnd);
+            removeFromScores(PieceType.ROOK, colour, rookStart);
+            addToScores(PieceType.ROOK, colour, rookEnd);
+        }
+
+        hash ^= Zobrist.piece(type, colour, from) ^ Zobrist.piece(piece.getType(), colour, to);
+
+        //A promoted pawn leaves the pawns
+        if (type == PieceType.PAWN) pawnHash ^= Zobrist.piece(PieceType.PAWN, colour, from);
+        if (piece.getType() == PieceType.PAWN) pawnHash ^= Zobrist.piece(PieceType.PAWN, colour, to);
+        removeFromScores(type, colour, from);
+        addToScores(piece.getType(), colour, to);
+
+        castlingRights &= CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to];
+
+        //A pawn moving by two can be eaten en passant on the square it skipped
+        enPassantSquare = type == PieceType.PAWN && Math.abs(to - from) == 2 * Position.LIMIT ?
+                (from + to) / 2 : BoardMap.NO_SQUARE;
+
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        colourToMove = colourToMove.getOpposite();
+    }
+
+    /**
+     * Undoes the last move applied with {@link #makeMove(int)}
+     */
+    public void undoMove() {
+        UndoRecord record = popUndoRecord();
+        int move = record.move;
+        int from = EncodedMove.getFrom(move);
+        int to = EncodedMove.getTo(move);
+        int flag = EncodedMove.getFlag(move);
+        colourToMove = colourToMove.getOpposite();
+
+        if (flag == EncodedMove.PROMOTION) {
+            Piece pawn = board.removePiece(to);
+            ((Pawn) pawn).demote();
+            board.add(to, pawn);
+        } else if (flag == EncodedMove.CASTLING) {
+            board.movePiece(getCastlingRookEnd(to, from), getCastlingRookStart(to, from));
+        }
+
+        board.movePiece(to, from);
+
+        //If a piece was eaten remove it from the stack and add it to the board
+        if (record.eaten != null) {
+            eatenPieces.get(record.eaten.getColour()).pop();
+            board.add(flag == EncodedMove.EN_PASSANT ? getEnPassantEatenSquare(from, to) : to, record.eaten);
+            record.eaten = null;
+        }
+
+        castlingRights = record.castlingRights;
+        enPassantSquare = record.enPassantSquare;
+        hash = record.hash;
+        pawnHash = record.pawnHash;
+        middlegameScore = record.middlegameScore;
+        endgameScore = record.endgameScore;
+        phase = record.phase;
+        if (accumulator != null) accumulator.pop(board);
+    }
+
+    private void addToScores(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        middlegameScore += PieceSquareTables.middlegame(type, colour, square);
+        endgameScore += PieceSquareTables.endgame(type, colour, square);
+        phase += PieceSquareTables.phase(type);
+        if (accumulator != null) accumulator.add(type, colour, square);
+    }
+
+    private void removeFromScores(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        middlegameScore -= PieceSquareTables.middlegame(type, colour, square);
+        endgameScore -= PieceSquareTables.endgame(type, colour, square);
+        phase -= PieceSquareTables.phase(type);
+        if (accumulator != null) accumulator.remove(type, colour, square);
+    }
+
+    /**
+     * Passes the turn to the other player without moving (used by the null move pruning of the search). The en passant
+     * square is lost. Undone with {@link #undoNullMove()}
+     */
+    public void makeNullMove() {
+        UndoRecord record = pushUndoRecord();
+        record.move = EncodedMove.NONE;
+        record.castlingRights = castlingRights;
+        record.enPassantSquare = enPassantSquare;
+        record.hash = hash;
+
+        hash ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.blackToMove();
+        enPassantSquare = BoardMap.NO_SQUARE;
+        colourToMove = colourToMove.getOpposite();
+    }
+
+    /**
+     * Undoes the last null move applied with {@link #makeNullMove()}
+     */
+    public void undoNullMove() {
+        UndoRecord record = popUndoRecord();
+        enPassantSquare = record.enPassantSquare;
+        hash = record.hash;
+        colourToMove = colourToMove.getOpposite();
+    }
+
+    /**
+     * @return the square of the pawn eaten en passant (next to the start, behind the destination)
+     */
+    private static int getEnPassantEatenSquare(int from, int to) {
+        return (from / Position.LIMIT) * Position.LIMIT + to % Position.LIMIT;
+    }
+
+    /**
+     * When castling the rook jumps to the other side of the king
+     */
+    private static int getCastlingRookStart(int kingEnd, int kingStart) {
+        return kingEnd > kingStart ? kingEnd + 1 : kingEnd - 2;
+    }
+
+    private static int getCastlingRookEnd(int kingEnd, int kingStart) {
+        return kingEnd > kingStart ? kingEnd - 1 : kingEnd + 1;
+    }
+
+    @NotNull
+    private UndoRecord pushUndoRecord() {
+        if (undoCount == undoRecords.size()) undoRecords.add(new UndoRecord());
+        return undoRecords.get(undoCount++);
+    }
+
+    @NotNull
+    private UndoRecord popUndoRecord() {
+        if (undoCount == 0) throw new IllegalStateException("No move to undo");
+        return undoRecords.get(--undoCount);
+    }
+
     /**
      * @return the stack of eaten pieces for this colour
      */
@@ -135,4 +796,33 @@ public class GameData implements Serializable {
     public LinkedList<Move> getPastMoves() {
         return pastMoves;
     }
-}
\ No newline at end of file
+
+    /**
+     * The state of the game before a move was applied that can not be found from the move itself
+     */
+    private static class UndoRecord implements Serializable {
+        private int move;
+
+        /**
+         * The eaten piece (null if no piece was eaten)
+         */
+        @Nullable
+        private Piece eaten;
+
+        private int castlingRights;
+
+        private int enPassantSquare;
+
+        /**
+         * The hash of the position before the move
+         */
+        private long hash;
+
+        private long pawnHash;
+
+        //The evaluation sums before the move
+        private int middlegameScore;
+        private int endgameScore;
+        private int phase;
+    }
+}
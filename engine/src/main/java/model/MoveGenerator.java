@@ -0,0 +1,307 @@
+package model;
+
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.pieces.Piece;
+import model.pieces.PieceType;
+import model.util.Bitboard;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.LeaperAttacks;
+import model.util.Position;
+import model.util.SlidingAttacks;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates only legal moves, without applying each move to see if the king is left in check.
+ * <p>
+ * Once per position it computes:
+ * <ul>
+ * <li>the checkers (the pieces attacking the king). In double check only the king can move</li>
+ * <li>the evasion mask (the squares where a piece must move to eat the checker or block its line)</li>
+ * <li>the pinned pieces (the pieces that can only move along the line between their king and the attacker)</li>
+ * </ul>
+ * The king's destinations and en passant (which removes two pieces from a line) are verified with an attack lookup.
+ * <p>
+ * The moves are written as {@link EncodedMove}s to a reusable {@link MoveList} such that generating allocates nothing.
+ * <p>
+ * The captures and the quiet moves can be generated separately (see {@link #generateLegalCaptures(GameData, Colour, MoveList)}
+ * and {@link #generateLegalQuietMoves(GameData, Colour, MoveList)}) by limiting the destinations to the opponent's pieces
+ * or to the empty squares. Together they give the same moves as {@link #generateLegalMoves(GameData, Colour, long, MoveList)}.
+ */
+public final class MoveGenerator {
+    /**
+     * The pieces a pawn can be promoted to, most valuable first
+     */
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.KNIGHT, PieceType.ROOK, PieceType.BISHOP};
+
+    //The types of moves that can be generated
+    private static final int ALL_MOVES = 0;
+    private static final int CAPTURES = 1;
+    private static final int QUIET_MOVES = 2;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * @param colour      the colour of the player that is moving
+     * @param fromSquares the bitboard of the squares whose pieces should be moved (use -1 for all the pieces)
+     * @param moves       the list where the legal moves are added
+     */
+    public static void generateLegalMoves(@NotNull GameData gameData, @NotNull Colour colour, long fromSquares, @NotNull MoveList moves) {
+        generate(gameData, colour, fromSquares, ALL_MOVES, moves);
+    }
+
+    /**
+     * Generates the legal captures (including en passant) and the promotions to a queen.
+     * Promotions to other pieces are left out, even when they eat a piece.
+     * Used by the search to only look at the moves that change the material once the search depth is reached
+     *
+     * @param colour the colour of the player that is moving
+     * @param moves  the list where the legal captures are added
+     */
+    public static void generateLegalCaptures(@NotNull GameData gameData, @NotNull Colour colour, @NotNull MoveList moves) {
+        generate(gameData, colour, -1L, CAPTURES, moves);
+    }
+
+    /**
+     * Generates the legal moves that are not generated by {@link #generateLegalCaptures(GameData, Colour, MoveList)}:
+     * the moves to an empty square, castling and the promotions to a knight, rook or bishop
+     *
+     * @param colour the colour of the player that is moving
+     * @param moves  the list where the legal quiet moves are added
+     */
+    public static void generateLegalQuietMoves(@NotNull GameData gameData, @NotNull Colour colour, @NotNull MoveList moves) {
+        generate(gameData, colour, -1L, QUIET_MOVES, moves);
+    }
+
+    /**
+     * @param type {@link #ALL_MOVES}, {@link #CAPTURES} or {@link #QUIET_MOVES}
+     */
+    private static void generate(@NotNull GameData gameData, @NotNull Colour colour, long fromSquares, int type, @NotNull MoveList moves) {
+        BoardMap board = gameData.getBoard();
+        Colour opponent = colour.getOpposite();
+
+        long own = board.getOccupancy(colour);
+        long occupancy = own | board.getOccupancy(opponent);
+        int kingSquare = Bitboard.firstSquare(board.getBitboard(PieceType.KING, colour));
+        long checkers = board.getAttackers(kingSquare, opponent, occupancy);
+
+        //The squares the pieces can move to (only the opponent's pieces for captures and only empty squares for quiet moves)
+        long targets = type == CAPTURES ? board.getOccupancy(opponent) : type == QUIET_MOVES ? ~occupancy : ~own;
+
+        if (Bitboard.contains(fromSquares, kingSquare)) {
+            generateKingMoves(board, colour, kingSquare, targets, occupancy, moves);
+
+            if (checkers == Bitboard.EMPTY && type != CAPTURES) generateCastling(gameData, colour, kingSquare, occupancy, moves);
+        }
+
+        //In double check only the king can move
+        if (Bitboard.count(checkers) > 1) return;
+
+        //When in check, the other pieces must eat the checker or block its line
+        long evasionMask = checkers == Bitboard.EMPTY ? -1L : checkers | SlidingAttacks.between(kingSquare, Bitboard.firstSquare(checkers));
+        long pinned = getPinnedPieces(board, colour, kingSquare, own, occupancy);
+
+        //Knights, bishops, rooks and queens
+        long pieces = own & fromSquares & ~board.getBitboard(PieceType.PAWN, colour) & ~Bitboard.of(kingSquare);
+
+        while (pieces != 0) {
+            int from = Bitboard.firstSquare(pieces);
+            long destinations = getAttacks(board.getPiece(from).getType(), from, occupancy) & targets & evasionMask;
+
+            //A pinned piece can only move along the line of the pin
+            if (Bitboard.contains(pinned, from)) destinations &= SlidingAttacks.line(kingSquare, from);
+
+            addMoves(board, from, destinations, moves);
+            pieces = Bitboard.withoutFirstSquare(pieces);
+        }
+
+        generatePawnMoves(gameData, colour, kingSquare, fromSquares, occupancy, evasionMask, pinned, type, moves);
+    }
+
+    private static void generateKingMoves(@NotNull BoardMap board, @NotNull Colour colour, int kingSquare, long targets, long occupancy, @NotNull MoveList moves) {
+        //The king is removed from the occupancy such that it does not hide the squares behind it from the sliders
+        long occupancyWithoutKing = occupancy ^ Bitboard.of(kingSquare);
+        long destinations = LeaperAttacks.kingAttacks(kingSquare) & targets;
+
+        while (destinations != 0) {
+            int to = Bitboard.firstSquare(destinations);
+            if (!board.isSquareAttacked(to, colour.getOpposite(), occupancyWithoutKing))
+                addMove(board, kingSquare, to, EncodedMove.NORMAL, moves);
+            destinations = Bitboard.withoutFirstSquare(destinations);
+        }
+    }
+
+    /**
+     * Only called when the king is not in check. A castling right implies that the king and the rook are on their starting squares
+     */
+    private static void generateCastling(@NotNull GameData gameData, @NotNull Colour colour, int kingSquare, long occupancy, @NotNull MoveList moves) {
+        BoardMap board = gameData.getBoard();
+
+        //Short castling (the rook is three squares to the right)
+        if (gameData.hasCastlingRight(colour, true) && canCastle(board, colour, kingSquare, kingSquare + 3, 1, occupancy))
+            addMove(board, kingSquare, kingSquare + 2, EncodedMove.CASTLING, moves);
+
+        //Long castling (the rook is four squares to the left)
+        if (gameData.hasCastlingRight(colour, false) && canCastle(board, colour, kingSquare, kingSquare - 4, -1, occupancy))
+            addMove(board, kingSquare, kingSquare - 2, EncodedMove.CASTLING, moves);
+    }
+
+    /**
+     * @param direction 1 if the king moves right, -1 if the king moves left
+     * @return true if the squares between the king and rook are empty and the king does not go through or land on an attacked square
+     */
+    private static boolean canCastle(@NotNull BoardMap board, @NotNull Colour colour, int kingSquare, int rookSquare, int direction, long occupancy) {
+        if ((SlidingAttacks.between(kingSquare, rookSquare) & occupancy) != 0) return false;
+
+        return !board.isSquareAttacked(kingSquare + direction, colour.getOpposite()) &&
+                !board.isSquareAttacked(kingSquare + 2 * direction, colour.getOpposite());
+    }
+
+    private static void generatePawnMoves(@NotNull GameData gameData, @NotNull Colour colour, int kingSquare, long fromSquares,
+                                          long occupancy, long evasionMask, long pinned, int type, @NotNull MoveList moves) {
+        BoardMap board = gameData.getBoard();
+        long enemies = board.getOccupancy(colour.getOpposite());
+        int forwardStep = colour == Colour.WHITE ? -Position.LIMIT : Position.LIMIT;
+        int startRow = colour == Colour.WHITE ? Position.LIMIT - 2 : 1;
+        int promotionRow = colour == Colour.WHITE ? 0 : Position.LIMIT - 1;
+        int enPassantSquare = type == QUIET_MOVES ? BoardMap.NO_SQUARE : gameData.getEnPassantSquare(colour);
+        long promotionSquares = getRow(promotionRow);
+
+        //Captures only have the promotions to a queen, quiet moves have the others
+        int firstPromotion = type == QUIET_MOVES ? 1 : 0;
+        int lastPromotion = type == CAPTURES ? 1 : PROMOTIONS.length;
+
+        long pawns = board.getBitboard(PieceType.PAWN, colour) & fromSquares;
+
+        while (pawns != 0) {
+            int from = Bitboard.firstSquare(pawns);
+            long pushes = Bitboard.EMPTY;
+
+            //No need for bounds check since when on edge pawn is promoted
+            int forward = from + forwardStep;
+
+            if (!Bitboard.contains(occupancy, forward)) {
+                pushes |= Bitboard.of(forward);
+
+                if (from / Position.LIMIT == startRow && !Bitboard.contains(occupancy, forward + forwardStep))
+                    pushes |= Bitboard.of(forward + forwardStep);
+            }
+
+            long captures = LeaperAttacks.pawnAttacks(colour, from) & enemies;
+
+            //For captures a pawn only moves forward to be promoted. For quiet moves a pawn only eats to be promoted (to a minor piece)
+            if (type == CAPTURES) pushes &= promotionSquares;
+            if (type == QUIET_MOVES) captures &= promotionSquares;
+
+            long destinations = (pushes | captures) & evasionMask;
+
+            if (Bitboard.contains(pinned, from)) destinations &= SlidingAttacks.line(kingSquare, from);
+
+            addMoves(board, from, destinations & ~promotionSquares, moves);
+            addPromotions(board, from, destinations & promotionSquares, firstPromotion, lastPromotion, moves);
+
+            if (enPassantSquare != BoardMap.NO_SQUARE && Bitboard.contains(LeaperAttacks.pawnAttacks(colour, from), enPassantSquare) &&
+                    isEnPassantLegal(board, colour, kingSquare, from, enPassantSquare, enPassantSquare - forwardStep, occupancy)) {
+                moves.add(EncodedMove.create(from, enPassantSquare, EncodedMove.EN_PASSANT, PieceType.PAWN, PieceType.PAWN, null));
+            }
+
+            pawns = Bitboard.withoutFirstSquare(pawns);
+        }
+    }
+
+    /**
+     * En passant removes two pieces from the row of the king so pins are not enough to verify it.
+     * Instead, the king is checked for attacks on the board after the move
+     */
+    private static boolean isEnPassantLegal(@NotNull BoardMap board, @NotNull Colour colour, int kingSquare, int from, int to, int eatenSquare, long occupancy) {
+        long occupancyAfter = (occupancy ^ Bitboard.of(from) ^ Bitboard.of(eatenSquare)) | Bitboard.of(to);
+        long attackers = board.getAttackers(kingSquare, colour.getOpposite(), occupancyAfter) & ~Bitboard.of(eatenSquare);
+        return attackers == Bitboard.EMPTY;
+    }
+
+    /**
+     * A piece is pinned if it is the only piece between its king and an opponent slider that attacks along that line
+     *
+     * @return the bitboard of the pinned pieces
+     */
+    private static long getPinnedPieces(@NotNull BoardMap board, @NotNull Colour colour, int kingSquare, long own, long occupancy) {
+        Colour opponent = colour.getOpposite();
+        long queens = board.getBitboard(PieceType.QUEEN, opponent);
+
+        //The sliders that would attack the king if the board was empty
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, Bitboard.EMPTY) & (board.getBitboard(PieceType.ROOK, opponent) | queens))
+                | (SlidingAttacks.bishopAttacks(kingSquare, Bitboard.EMPTY) & (board.getBitboard(PieceType.BISHOP, opponent) | queens));
+
+        long pinned = Bitboard.EMPTY;
+
+        while (snipers != 0) {
+            long blockers = SlidingAttacks.between(kingSquare, Bitboard.firstSquare(snipers)) & occupancy;
+            if (Bitboard.count(blockers) == 1) pinned |= blockers & own;
+            snipers = Bitboard.withoutFirstSquare(snipers);
+        }
+
+        return pinned;
+    }
+
+    private static long getAttacks(@NotNull PieceType type, int square, long occupancy) {
+        switch (type) {
+            case KNIGHT:
+                return LeaperAttacks.knightAttacks(square);
+            case BISHOP:
+                return SlidingAttacks.bishopAttacks(square, occupancy);
+            case ROOK:
+                return SlidingAttacks.rookAttacks(square, occupancy);
+            case QUEEN:
+                return SlidingAttacks.queenAttacks(square, occupancy);
+            default:
+                throw new IllegalArgumentException("Not a knight or slider: " + type);
+        }
+    }
+
+    /**
+     * @return the bitboard of all the squares of this row
+     */
+    private static long getRow(int row) {
+        return 0xFFL << (row * Position.LIMIT);
+    }
+
+    private static void addMoves(@NotNull BoardMap board, int from, long destinations, @NotNull MoveList moves) {
+        while (destinations != 0) {
+            addMove(board, from, Bitboard.firstSquare(destinations), EncodedMove.NORMAL, moves);
+            destinations = Bitboard.withoutFirstSquare(destinations);
+        }
+    }
+
+    /**
+     * Adds one move for each type of piece the pawn can be promoted to
+     *
+     * @param firstPromotion the index of the first type of {@link #PROMOTIONS} to use
+     * @param lastPromotion  the index after the last type to use
+     */
+    private static void addPromotions(@NotNull BoardMap board, int from, long destinations, int firstPromotion, int lastPromotion, @NotNull MoveList moves) {
+        while (destinations != 0) {
+            int to = Bitboard.firstSquare(destinations);
+            PieceType captured = getType(board, to);
+
+            for (int i = firstPromotion; i < lastPromotion; i++) {
+                moves.add(EncodedMove.create(from, to, EncodedMove.PROMOTION, PieceType.PAWN, captured, PROMOTIONS[i]));
+            }
+
+            destinations = Bitboard.withoutFirstSquare(destinations);
+        }
+    }
+
+    private static void addMove(@NotNull BoardMap board, int from, int to, int flag, @NotNull MoveList moves) {
+        moves.add(EncodedMove.create(from, to, flag, board.getPiece(from).getType(), getType(board, to), null));
+    }
+
+    /**
+     * @return the type of the piece at the square (null if empty)
+     */
+    private static PieceType getType(@NotNull BoardMap board, int square) {
+        Piece piece = board.getPiece(square);
+        return piece == null ? null : piece.getType();
+    }
+}
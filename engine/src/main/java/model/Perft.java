@@ -0,0 +1,129 @@
+package model;
+
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.pieces.PieceType;
+import model.util.Colour;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the positions reachable in a number of moves (perft). The counts of reference positions are known, so a wrong
+ * count shows a bug in the move generation, applying or undoing moves (castling, en passant and promotions are the usual
+ * suspects). Dividing the count by the first move (see {@link #divide(Colour, int)}) and comparing with another engine
+ * finds the wrong move. Also measures the speed of the move generation.
+ * <p>
+ * The positions at the last move are not applied: the number of legal moves is the number of positions (bulk counting)
+ */
+public final class Perft {
+    @NotNull
+    private final GameData gameData;
+
+    /**
+     * One reusable move list per ply (grows with the depth)
+     */
+    @NotNull
+    private MoveList[] moveLists = new MoveList[0];
+
+    /**
+     * The number of positions generated by the last {@link #count(Colour, int)} or {@link #divide(Colour, int)}
+     * (including the moves of the last ply, which are generated but not applied)
+     */
+    private long nodes;
+
+    public Perft(@NotNull GameData gameData) {
+        this.gameData = gameData;
+    }
+
+    /**
+     * @param colour the player to move
+     * @param depth  the number of moves
+     * @return the number of positions reachable in exactly depth moves (1 at depth 0)
+     */
+    public long count(@NotNull Colour colour, int depth) {
+        prepare(depth);
+        return countFrom(colour, depth, 0);
+    }
+
+    /**
+     * @param colour the player to move
+     * @param depth  the number of moves (at least 1)
+     * @return the number of positions reachable in exactly depth moves after each first move (in the order the moves
+     * are generated). The moves are in coordinate notation (ex. e2e4, e7e8q)
+     */
+    @NotNull
+    public Map<String, Long> divide(@NotNull Colour colour, int depth) {
+        if (depth < 1) throw new IllegalArgumentException("The depth of a divide must be at least 1: " + depth);
+
+        prepare(depth);
+        MoveList moves = moveLists[0];
+        moves.clear();
+        gameData.generateLegalMoves(colour, moves);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            gameData.makeMove(move);
+            counts.put(toCoordinates(move), countFrom(colour.getOpposite(), depth - 1, 1));
+            gameData.undoMove();
+        }
+
+        nodes += moves.size();
+        return counts;
+    }
+
+    /**
+     * @return the number of positions generated by the last count (used to measure the speed)
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private void prepare(int depth) {
+        if (moveLists.length < depth) {
+            moveLists = new MoveList[depth];
+
+            for (int i = 0; i < depth; i++) {
+                moveLists[i] = new MoveList();
+            }
+        }
+
+        nodes = 0;
+    }
+
+    private long countFrom(@NotNull Colour colour, int depth, int ply) {
+        if (depth == 0) return 1;
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        gameData.generateLegalMoves(colour, moves);
+        nodes += moves.size();
+
+        if (depth == 1) return moves.size();
+
+        long count = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            gameData.makeMove(moves.get(i));
+            count += countFrom(colour.getOpposite(), depth - 1, ply + 1);
+            gameData.undoMove();
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the move in coordinate notation: the start and end squares and the promotion (ex. e2e4, e7e8q)
+     */
+    @NotNull
+    public static String toCoordinates(int move) {
+        String coordinates = Fen.toSquare(EncodedMove.getFrom(move)) + Fen.toSquare(EncodedMove.getTo(move));
+        if (EncodedMove.getFlag(move) != EncodedMove.PROMOTION) return coordinates;
+
+        PieceType promotion = EncodedMove.getPromotion(move);
+        return coordinates + (promotion == PieceType.KNIGHT ? 'n' : promotion.name().toLowerCase().charAt(0));
+    }
+}
@@ -0,0 +1,131 @@
+package model.moves;
+
+import model.pieces.PieceType;
+import model.util.Position;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A move packed into an int such that generating moves allocates nothing. Can be converted to a {@link Move} with {@link #toMove(int)}.
+ * <p>
+ * Bits (from lowest):
+ * <ul>
+ * <li>0-5: the start square ({@link Position#getIndex()})</li>
+ * <li>6-11: the destination square</li>
+ * <li>12-13: the flag ({@link #NORMAL}, {@link #PROMOTION}, {@link #EN_PASSANT} or {@link #CASTLING})</li>
+ * <li>14-16: the type of the moving piece</li>
+ * <li>17-19: the type of the captured piece plus one (0 if nothing is captured)</li>
+ * <li>20-22: the type of the piece the pawn is promoted to (only for promotions)</li>
+ * </ul>
+ * Since a move never starts and ends on the same square, 0 is never a valid move and is used as {@link #NONE}.
+ */
+public final class EncodedMove {
+    public static final int NONE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int PROMOTION = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 3;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int FLAG_MASK = 0x3;
+    private static final int TYPE_MASK = 0x7;
+
+    private static final int TO_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int PIECE_SHIFT = 14;
+    private static final int CAPTURED_SHIFT = 17;
+    private static final int PROMOTION_SHIFT = 20;
+
+    private EncodedMove() {
+    }
+
+    /**
+     * @param captured  the type of the captured piece (null if nothing is captured)
+     * @param promotion the type of the piece the pawn is promoted to (null if not a promotion)
+     */
+    @Contract(pure = true)
+    public static int create(int from, int to, int flag, @NotNull PieceType piece, @Nullable PieceType captured, @Nullable PieceType promotion) {
+        return from
+                | to << TO_SHIFT
+                | flag << FLAG_SHIFT
+                | piece.ordinal() << PIECE_SHIFT
+                | (captured == null ? 0 : captured.ordinal() + 1) << CAPTURED_SHIFT
+                | (promotion == null ? 0 : promotion.ordinal()) << PROMOTION_SHIFT;
+    }
+
+    @Contract(pure = true)
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    @Contract(pure = true)
+    public static int getTo(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    @Contract(pure = true)
+    public static int getFlag(int move) {
+        return (move >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public static PieceType getPiece(int move) {
+        return PieceType.fromOrdinal((move >>> PIECE_SHIFT) & TYPE_MASK);
+    }
+
+    @Contract(pure = true)
+    public static boolean isCapture(int move) {
+        return ((move >>> CAPTURED_SHIFT) & TYPE_MASK) != 0;
+    }
+
+    /**
+     * @return the type of the captured piece or null if nothing is captured
+     */
+    @Nullable
+    @Contract(pure = true)
+    public static PieceType getCaptured(int move) {
+        int captured = (move >>> CAPTURED_SHIFT) & TYPE_MASK;
+        return captured == 0 ? null : PieceType.fromOrdinal(captured - 1);
+    }
+
+    /**
+     * @return the type of the piece the pawn is promoted to (only defined for promotions)
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static PieceType getPromotion(int move) {
+        return PieceType.fromOrdinal((move >>> PROMOTION_SHIFT) & TYPE_MASK);
+    }
+
+    /**
+     * Adapter to the move objects used by the UI and the {@link model.Game}
+     *
+     * @return a new move object for the encoded move
+     */
+    @NotNull
+    public static Move toMove(int move) {
+        int from = getFrom(move);
+        int to = getTo(move);
+        Position start = Position.fromIndex(from);
+        Position end = Position.fromIndex(to);
+
+        switch (getFlag(move)) {
+            case PROMOTION:
+                return new PromotionMove(start, end, getPromotion(move));
+            case EN_PASSANT:
+                return new EnPassantMove(start, end);
+            case CASTLING:
+                return new CastlingMove(start, end);
+            default:
+                return new BaseMove(start, end);
+        }
+    }
+
+    @NotNull
+    public static String toString(int move) {
+        return Position.fromIndex(getFrom(move)) + " to " + Position.fromIndex(getTo(move));
+    }
+}
@@ -2,6 +2,8 @@ package model.moves;
 
 import model.GameData;
 import model.pieces.Piece;
+import model.pieces.PieceType;
+import model.util.BoardMap;
 import model.util.Position;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -11,15 +13,12 @@ import java.io.Serializable;
 import java.util.Objects;
 
 /**
- * A move. Each move has a start and end location. Each move has a piece (defined only when move is applied)
+ * A move. Each move has a start and end location.
+ * <p>
+ * Moves are immutable. The state that is only known when the move is applied (the eaten piece, the previous castling rights, ...)
+ * is kept by the {@link GameData} in its undo records. A move can therefore be shared between boards and threads.
  */
 public abstract class Move implements Serializable {
-    /**
-     * The piece that is moving. Gets set in method applyToGame
-     */
-    @Nullable
-    Piece piece;
-
     @NotNull
     final Position start;
 
@@ -41,40 +40,48 @@ public abstract class Move implements Serializable {
         return start;
     }
 
-    @Nullable
-    public Piece getPiece() {
-        return piece;
-    }
-
     /**
      * Applies this move to the game data
      */
     public void apply(@NotNull GameData data) {
-        applyToGame(data);
+        data.makeMove(encode(data.getBoard()));
         data.getPastMoves().add(this);
-        piece.notifyMoveComplete(this);
     }
 
     /**
-     * Implemented by subclasses to be actually applied to game data
-     */
-    abstract void applyToGame(GameData data);
-
-    /**
-     * Undoes the move from the game data
+     * Undoes the move from the game data. The move must be the last applied move
      */
     public void undo(@NotNull GameData data) {
         data.getPastMoves().removeLast();
-        undoToGame(data);
-        piece.notifyMoveUndo(this);
+        data.undoMove();
     }
 
-    abstract void undoToGame(GameData data);
+    /**
+     * @return the type of move (see {@link EncodedMove#getFlag(int)})
+     */
+    abstract int getFlag();
+
+    /**
+     * @return the type of piece a pawn is promoted to (null if the move is not a promotion)
+     */
+    @Nullable
+    PieceType getPromotion() {
+        return null;
+    }
 
     /**
-     * @return the value of the move (difference in board value)
+     * @param board the board before the move is applied (to find the type of the moving and eaten pieces)
+     * @return the move as an int (see {@link EncodedMove})
      */
-    public abstract int getValue();
+    public int encode(@NotNull BoardMap board) {
+        Piece piece = board.getPiece(start);
+        if (piece == null) throw new IllegalStateException("No piece to move at: " + start);
+
+        Piece eaten = board.getPiece(end);
+        PieceType eatenType = getFlag() == EncodedMove.EN_PASSANT ? PieceType.PAWN : eaten == null ? null : eaten.getType();
+
+        return EncodedMove.create(start.getIndex(), end.getIndex(), getFlag(), piece.getType(), eatenType, getPromotion());
+    }
 
     /**
      * @return true if the obj is a move with the same start and end
@@ -88,9 +95,12 @@ public abstract class Move implements Serializable {
         return this.end.equals(((Move) obj).end);
     }
 
+    /**
+     * Uses the same fields as {@link #equals(Object)}
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(this.piece, this.end);
+        return Objects.hash(this.start, this.end);
     }
 
     @NotNull
@@ -0,0 +1,79 @@
+package model.moves;
+
+/**
+ * A reusable buffer of encoded moves (see {@link EncodedMove}).
+ * The search keeps one list per ply and clears it instead of allocating a new collection at every node.
+ * <p>
+ * Each move can be given a score to order the moves. The moves are not sorted: {@link #pickBest(int)} brings the best
+ * remaining move forward when it is needed, which is faster when the search stops after the first few moves.
+ */
+public class MoveList {
+    /**
+     * More than the maximum number of legal moves in any chess position (218)
+     */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+
+    private final int[] scores = new int[CAPACITY];
+
+    private int size = 0;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    /**
+     * Moves the move with the highest score among the moves from index to the end of the list to index (selection sort step)
+     *
+     * @return the move now at index
+     */
+    public int pickBest(int index) {
+        int best = index;
+
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+
+        if (best != index) swap(index, best);
+
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Swaps the moves at these indices (used to order the moves)
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
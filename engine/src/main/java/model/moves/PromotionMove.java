@@ -1,19 +1,36 @@
 package model.moves;
 
-import model.pieces.Queen;
+import model.pieces.PieceType;
 import model.util.Position;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * A move that promotes a pawn to a queen.
+ * A move that promotes a pawn (to a queen unless another type is given).
  */
 public class PromotionMove extends BaseMove {
+    /**
+     * The type of piece the pawn becomes
+     */
+    @NotNull
+    private final PieceType promotion;
+
     public PromotionMove(@NotNull Position debut, @NotNull Position fin) {
+        this(debut, fin, PieceType.QUEEN);
+    }
+
+    public PromotionMove(@NotNull Position debut, @NotNull Position fin, @NotNull PieceType promotion) {
         super(debut, fin);
+        this.promotion = promotion;
+    }
+
+    @Override
+    int getFlag() {
+        return EncodedMove.PROMOTION;
     }
 
+    @NotNull
     @Override
-    public int getValue() {
-        return super.getValue() + new Queen(piece.getColour()).getSignedValue() - piece.getSignedValue();
+    public PieceType getPromotion() {
+        return promotion;
     }
 }
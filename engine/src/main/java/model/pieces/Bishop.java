@@ -1,27 +1,23 @@
 package model.pieces;
 
-import model.moves.Move;
 import model.util.Colour;
-import model.util.Offset;
+import model.util.SlidingAttacks;
 import org.jetbrains.annotations.NotNull;
 
 public class Bishop extends DirectionPiece {
-    private static final Offset[] DIRECTIONS = {
-            Offset.TOP_LEFT,
-            Offset.TOP_RIGHT,
-            Offset.BOTTOM_LEFT,
-            Offset.BOTTOM_RIGHT
-    };
-
-
     public Bishop(Colour colour) {
         super(colour);
     }
 
+    @Override
+    long getAttacks(int square, long occupancy) {
+        return SlidingAttacks.bishopAttacks(square, occupancy);
+    }
+
     @NotNull
     @Override
-    Offset[] getDirections() {
-        return DIRECTIONS;
+    public PieceType getType() {
+        return PieceType.BISHOP;
     }
 
     @Override
@@ -34,19 +30,6 @@ public class Bishop extends DirectionPiece {
         return 9821;
     }
 
-    @Override
-    public int getUnsignedValue() {
-        return 3;
-    }
-
-    @Override
-    public void notifyMoveComplete(Move move) {
-    }
-
-    @Override
-    public void notifyMoveUndo(Move move) {
-    }
-
     @NotNull
     @Override
     String getName() {
@@ -1,33 +1,23 @@
 package model.pieces;
 
-import model.moves.Move;
 import model.util.Colour;
-import model.util.Offset;
+import model.util.LeaperAttacks;
 import org.jetbrains.annotations.NotNull;
 
 public class Knight extends OffsetPiece {
-    /**
-     * The Offsets where the Knight can be moved. In an L shape
-     */
-    private static final Offset[] OFFSETS = {
-            new Offset(-1, -2),
-            new Offset(-2, -1),
-            new Offset(-2, 1),
-            new Offset(-1, 2),
-            new Offset(1, 2),
-            new Offset(2, 1),
-            new Offset(2, -1),
-            new Offset(1, -2)
-    };
-
     public Knight(Colour colour) {
         super(colour);
     }
 
+    @Override
+    long getAttacks(int square) {
+        return LeaperAttacks.knightAttacks(square);
+    }
+
     @NotNull
     @Override
-    Offset[] getOffsets() {
-        return OFFSETS;
+    public PieceType getType() {
+        return PieceType.KNIGHT;
     }
 
     @Override
@@ -40,19 +30,6 @@ public class Knight extends OffsetPiece {
         return 9822;
     }
 
-    @Override
-    public int getUnsignedValue() {
-        return 3;
-    }
-
-    @Override
-    public void notifyMoveComplete(Move move) {
-    }
-
-    @Override
-    public void notifyMoveUndo(Move move) {
-    }
-
     @NotNull
     @Override
     String getName() {
@@ -1,16 +1,11 @@
 package model.pieces;
 
-import model.GameData;
 import model.util.Colour;
-import model.util.Offset;
-import model.util.Position;
-import org.jetbrains.annotations.NotNull;
-
-import java.util.Collection;
-import java.util.LinkedList;
 
 /**
  * A piece that can move to squares next to it (King and Knight)
+ * <p>
+ * The piece jumps to its destinations so it can not be blocked. Its destinations come from the {@link model.util.LeaperAttacks} tables
  */
 abstract class OffsetPiece extends Piece {
     OffsetPiece(Colour colour) {
@@ -18,28 +13,12 @@ abstract class OffsetPiece extends Piece {
     }
 
     @Override
-    Collection<Position> generatePossibleDestinations(@NotNull GameData gameData, @NotNull Position start) {
-        Collection<Position> positions = new LinkedList<>();
-
-        //For each possible position
-        for (Offset offset : getOffsets()) {
-            Position nextPosition = start.shift(offset);
-
-            //If not valid skip
-            if (!nextPosition.isValid()) continue;
-
-            Piece piece = gameData.getBoard().getPiece(nextPosition);
-
-            //If empty or piece other color can move
-            if (piece == null || piece.getColour() != colour) positions.add(nextPosition);
-        }
-
-        return positions;
+    final long getAttacks(int square, long occupancy) {
+        return getAttacks(square);
     }
 
     /**
-     * @return the offsets where the piece can move
+     * @return the bitboard of the squares attacked from this square
      */
-    @NotNull
-    abstract Offset[] getOffsets();
+    abstract long getAttacks(int square);
 }
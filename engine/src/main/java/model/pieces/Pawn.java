@@ -4,30 +4,24 @@ import model.GameData;
 import model.moves.EnPassantMove;
 import model.moves.Move;
 import model.moves.PromotionMove;
+import model.util.Bitboard;
 import model.util.BoardMap;
 import model.util.Colour;
-import model.util.Offset;
+import model.util.LeaperAttacks;
 import model.util.Position;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.LinkedList;
 
 public class Pawn extends Piece {
-    private final Offset RIGHT_ATTACK = getColour() == Colour.WHITE ? Offset.TOP_LEFT : Offset.BOTTOM_LEFT;
-    private final Offset LEFT_ATTACK = getColour() == Colour.WHITE ? Offset.TOP_RIGHT : Offset.BOTTOM_RIGHT;
-    private final Offset FORWARD = getColour() == Colour.WHITE ? Offset.UP : Offset.DOWN;
-    public final Offset BACKWARD = getColour() == Colour.WHITE ? Offset.DOWN : Offset.UP;
-    private final Offset FORWARD_BY_TWO = new Offset(Colour.WHITE == getColour() ? -2 : 2, 0);
-
     private final int startRow = getColour() == Colour.WHITE ? Position.LIMIT - 2 : 1;
 
     /**
-     * null when not promoted and not-null when pawn was promoted
+     * null when not promoted and the piece the pawn became when it was promoted
      */
     @Nullable
-    private Piece promotedQueen = null;
+    private Piece promotedPiece = null;
 
     public Pawn(Colour colour) {
         super(colour);
@@ -35,7 +29,7 @@ public class Pawn extends Piece {
 
     @Override
     Move convertDestinationToMove(@NotNull BoardMap board, @NotNull Position current, @NotNull Position destination) {
-        if (promotedQueen != null) return promotedQueen.convertDestinationToMove(board, current, destination);
+        if (promotedPiece != null) return promotedPiece.convertDestinationToMove(board, current, destination);
 
         //Check for promotion if on last row
         if (destination.getRow() == 0 || destination.getRow() == Position.LIMIT - 1)
@@ -49,90 +43,103 @@ public class Pawn extends Piece {
 
     @Override
     Collection<Position> generatePossibleDestinations(@NotNull GameData gameData, @NotNull Position start) {
-        //If promoted use queen to generate moves
-        if (promotedQueen != null) return promotedQueen.generatePossibleDestinations(gameData, start);
-
-        Collection<Position> positions = new LinkedList<>();
+        //If promoted use the promoted piece to generate moves
+        if (promotedPiece != null) return promotedPiece.generatePossibleDestinations(gameData, start);
 
-        Position forward = start.shift(FORWARD);
+        BoardMap board = gameData.getBoard();
+        long empty = ~board.getOccupancy();
+        long destinations = Bitboard.EMPTY;
 
         //If no one in spot in front can move else we are blocked
-        //No need for .isValid check since when on edge piece is promoted to queen
-        boolean notBlocked = gameData.getBoard().getPiece(forward) == null;
-        if (notBlocked) positions.add(forward);
+        //No need for bounds check since when on edge piece is promoted to queen
+        int forward = start.getIndex() + getForwardStep();
 
-        //If not blocked and on start row we can move forward by two
-        //No need for .isValid check since when on edge piece is promoted to queen
-        if (notBlocked && start.getRow() == startRow) {
-            forward = start.shift(FORWARD_BY_TWO);
+        if (Bitboard.contains(empty, forward)) {
+            destinations |= Bitboard.of(forward);
 
-            //Only move forward by two if square is empty
-            if (gameData.getBoard().getPiece(forward) == null) positions.add(forward);
+            //If not blocked and on start row we can move forward by two (only if square is empty)
+            int forwardByTwo = forward + getForwardStep();
+            if (start.getRow() == startRow && Bitboard.contains(empty, forwardByTwo))
+                destinations |= Bitboard.of(forwardByTwo);
         }
 
-        //Try to eat pieces on the side (add en passant)
-        forward = start.shift(RIGHT_ATTACK);
-        if (canAttack(gameData, forward)) positions.add(forward);
-
-        forward = start.shift(LEFT_ATTACK);
-        if (canAttack(gameData, forward)) positions.add(forward);
+        //Eat pieces on the side (including en passant)
+        long attacks = getAttacks(start.getIndex(), board.getOccupancy());
+        destinations |= attacks & (board.getOccupancy(colour.getOpposite()) | getEnPassantTarget(gameData));
 
-        return positions;
+        return Bitboard.toPositions(destinations);
     }
 
-    private boolean canAttack(@NotNull GameData gameData, Position destination) {
-        if (!destination.isValid()) return false;
-
-        //If piece there return true if same color
-        Piece piece = gameData.getBoard().getPiece(destination);
-        if (piece != null) {
-            return piece.getColour() != colour;//Can eat if piece exists and is other colour
-        }
-
-        //Get piece on the side
-        Piece pieceOnSide = gameData.getBoard().getPiece(destination.shift(BACKWARD));
-        //If piece is null or not a pawn do nothing (or if same colour as me
-        if (!(pieceOnSide instanceof Pawn) || pieceOnSide.getColour() == colour) return false;
-
-        //Get last move
-        Move lastMove = gameData.getPastMoves().getLast();
+    @Override
+    long getAttacks(int square, long occupancy) {
+        if (promotedPiece != null) return promotedPiece.getAttacks(square, occupancy);
 
-        //If the last move affected the piece on the side and the piece on the side moved by two
-        return lastMove.getPiece() == pieceOnSide && Math.abs(lastMove.getStart().getRow() - lastMove.getEnd().getRow()) == 2;
+        return LeaperAttacks.pawnAttacks(colour, square);
     }
 
-    @Override
-    int getUnicodeBlack() {
-        if (promotedQueen != null) return promotedQueen.getUnicodeBlack();
+    /**
+     * @return the number to add to a square's index to get the square in front of the pawn
+     */
+    private int getForwardStep() {
+        return colour == Colour.WHITE ? -Position.LIMIT : Position.LIMIT;
+    }
 
-        return 9823;
+    /**
+     * @return the bitboard of the square this pawn can move to to eat en passant (empty if none)
+     */
+    private long getEnPassantTarget(@NotNull GameData gameData) {
+        int square = gameData.getEnPassantSquare(colour);
+        return square == BoardMap.NO_SQUARE ? Bitboard.EMPTY : Bitboard.of(square);
     }
 
+    @NotNull
     @Override
-    int getUnicodeWhite() {
-        if (promotedQueen != null) return promotedQueen.getUnicodeWhite();
-        return 9817;
+    public PieceType getType() {
+        return promotedPiece == null ? PieceType.PAWN : promotedPiece.getType();
     }
 
-    @Override
-    public int getUnsignedValue() {
-        if (promotedQueen != null) return promotedQueen.getUnsignedValue();
+    /**
+     * Promotes the pawn. The pawn must not be on the board since this changes its type (see {@link #getType()})
+     *
+     * @param type the type of piece the pawn becomes (knight, bishop, rook or queen)
+     */
+    public void promote(@NotNull PieceType type) {
+        switch (type) {
+            case KNIGHT:
+                promotedPiece = new Knight(colour);
+                break;
+            case BISHOP:
+                promotedPiece = new Bishop(colour);
+                break;
+            case ROOK:
+                promotedPiece = new Rook(colour);
+                break;
+            case QUEEN:
+                promotedPiece = new Queen(colour);
+                break;
+            default:
+                throw new IllegalArgumentException("A pawn can not be promoted to: " + type);
+        }
+    }
 
-        return 1;
+    /**
+     * Reverts {@link #promote(PieceType)}. The pawn must not be on the board
+     */
+    public void demote() {
+        promotedPiece = null;
     }
 
     @Override
-    public void notifyMoveComplete(Move move) {
-        if (move instanceof PromotionMove) {
-            promotedQueen = new Queen(colour);
-        }
+    int getUnicodeBlack() {
+        if (promotedPiece != null) return promotedPiece.getUnicodeBlack();
+
+        return 9823;
     }
 
     @Override
-    public void notifyMoveUndo(Move move) {
-        if (move instanceof PromotionMove) {
-            promotedQueen = null;
-        }
+    int getUnicodeWhite() {
+        if (promotedPiece != null) return promotedPiece.getUnicodeWhite();
+        return 9817;
     }
 
     @NotNull
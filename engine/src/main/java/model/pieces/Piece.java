@@ -3,6 +3,7 @@ package model.pieces;
 import model.GameData;
 import model.moves.BaseMove;
 import model.moves.Move;
+import model.util.Bitboard;
 import model.util.BoardMap;
 import model.util.Colour;
 import model.util.Position;
@@ -43,6 +44,12 @@ public abstract class Piece implements Serializable {
         return colour == Colour.WHITE ? getUnsignedValue() : -getUnsignedValue();
     }
 
+    /**
+     * @return the type of the piece. Used to index the piece's bitboard in the {@link BoardMap}
+     */
+    @NotNull
+    public abstract PieceType getType();
+
     /**
      * @return the unicode for the white version of the piece
      */
@@ -55,11 +62,24 @@ public abstract class Piece implements Serializable {
 
     /**
      * Does not check for checks (king being attacked)
+     * <p>
+     * By default the piece can move to any square it attacks that is not occupied by a piece of the same colour
      *
      * @param start where the piece is at right now
      * @return the list of positions where the piece can move
      */
-    abstract Collection<Position> generatePossibleDestinations(GameData gameData, Position start);
+    Collection<Position> generatePossibleDestinations(@NotNull GameData gameData, @NotNull Position start) {
+        //WARNING if parameter start is removed pawn promoted to queen might not work since queen will not recognize itself on the board
+        BoardMap board = gameData.getBoard();
+        return Bitboard.toPositions(getAttacks(start.getIndex(), board.getOccupancy()) & ~board.getOccupancy(colour));
+    }
+
+    /**
+     * @param square    the square of the piece
+     * @param occupancy the bitboard of all the pieces on the board (the pieces that can block the piece)
+     * @return the bitboard of the squares attacked by the piece
+     */
+    abstract long getAttacks(int square, long occupancy);
 
     /**
      * Separate method to allow overriding from subclasses if a special move is required
@@ -85,29 +105,17 @@ public abstract class Piece implements Serializable {
         return moves;
     }
 
-    public boolean isAttackingPosition(@NotNull GameData gameData, Position position) {
-        Collection<Position> positions = generatePossibleDestinations(gameData, gameData.getBoard().getPosition(this));
-        return positions.contains(position);
+    public boolean isAttackingPosition(@NotNull GameData gameData, @NotNull Position position) {
+        BoardMap board = gameData.getBoard();
+        return Bitboard.contains(getAttacks(board.getSquare(this), board.getOccupancy()), position.getIndex());
     }
 
     /**
-     * @return the positive value of this piece
+     * @return the positive value of this piece (see {@link PieceType#getValue()})
      */
-    protected abstract int getUnsignedValue();
-
-    /**
-     * Called when a move is applied to this piece
-     *
-     * @param move the move that was applied
-     */
-    public abstract void notifyMoveComplete(Move move);
-
-    /**
-     * Called when a move is undone on this piece
-     *
-     * @param move the move that was undone
-     */
-    public abstract void notifyMoveUndo(Move move);
+    protected int getUnsignedValue() {
+        return getType().getValue();
+    }
 
     abstract String getName();
 
@@ -0,0 +1,41 @@
+package model.pieces;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The kinds of pieces. The ordinal is used to index the bitboards in {@link model.util.BoardMap}
+ */
+public enum PieceType {
+    PAWN(1),
+    KNIGHT(3),
+    BISHOP(3),
+    ROOK(5),
+    QUEEN(8),
+    /**
+     * Large value to show that the King is the most valuable and should not be eaten
+     */
+    KING(1000);
+
+    /**
+     * Cached since values() creates a new array at each call
+     */
+    private static final PieceType[] VALUES = values();
+
+    private final int value;
+
+    PieceType(int value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the positive value of this type of piece
+     */
+    public int getValue() {
+        return value;
+    }
+
+    @NotNull
+    public static PieceType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -1,30 +1,23 @@
 package model.pieces;
 
-import model.moves.Move;
 import model.util.Colour;
-import model.util.Offset;
+import model.util.SlidingAttacks;
 import org.jetbrains.annotations.NotNull;
 
 public class Queen extends DirectionPiece {
-    private static final Offset[] OFFSETS = {
-            Offset.TOP_LEFT,
-            Offset.UP,
-            Offset.TOP_RIGHT,
-            Offset.LEFT,
-            Offset.RIGHT,
-            Offset.BOTTOM_LEFT,
-            Offset.DOWN,
-            Offset.BOTTOM_RIGHT
-    };
-
     public Queen(Colour colour) {
         super(colour);
     }
 
+    @Override
+    long getAttacks(int square, long occupancy) {
+        return SlidingAttacks.queenAttacks(square, occupancy);
+    }
+
     @NotNull
     @Override
-    Offset[] getDirections() {
-        return OFFSETS;
+    public PieceType getType() {
+        return PieceType.QUEEN;
     }
 
     @Override
@@ -37,19 +30,6 @@ public class Queen extends DirectionPiece {
         return 9819;
     }
 
-    @Override
-    public int getUnsignedValue() {
-        return 8;
-    }
-
-    @Override
-    public void notifyMoveComplete(Move move) {
-    }
-
-    @Override
-    public void notifyMoveUndo(Move move) {
-    }
-
     @NotNull
     @Override
     String getName() {
@@ -1,60 +1,33 @@
 package model.pieces;
 
-import model.moves.Move;
 import model.util.Colour;
-import model.util.Offset;
+import model.util.SlidingAttacks;
 import org.jetbrains.annotations.NotNull;
 
 public class Rook extends DirectionPiece {
-    private static final Offset[] OFFSETS = {
-            Offset.UP,
-            Offset.LEFT,
-            Offset.RIGHT,
-            Offset.DOWN
-    };
-
-    /**
-     * The number of moves that have been applied to this piece. Used to know if the piece has moved
-     */
-    private int numberOfAppliedMoves = 0;
-
     public Rook(Colour colour) {
         super(colour);
     }
 
-    @Override
-    int getUnicodeWhite() {
-        return 9814;
-    }
-
-    @Override
-    int getUnicodeBlack() {
-        return 9820;
-    }
-
     @NotNull
     @Override
-    Offset[] getDirections() {
-        return OFFSETS;
+    public PieceType getType() {
+        return PieceType.ROOK;
     }
 
     @Override
-    public int getUnsignedValue() {
-        return 5;
+    int getUnicodeWhite() {
+        return 9814;
     }
 
     @Override
-    public void notifyMoveComplete(Move move) {
-        numberOfAppliedMoves += 1;
+    int getUnicodeBlack() {
+        return 9820;
     }
 
     @Override
-    public void notifyMoveUndo(Move move) {
-        numberOfAppliedMoves -= 1;
-    }
-
-    boolean hasMoved() {
-        return numberOfAppliedMoves != 0;
+    long getAttacks(int square, long occupancy) {
+        return SlidingAttacks.rookAttacks(square, occupancy);
     }
 
     @NotNull
@@ -0,0 +1,118 @@
+package model.player;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the static evaluation of positions by Zobrist hash (see {@link model.GameData#getHash()}). The same positions
+ * are evaluated again and again: in every iteration, in the quiescence search of sibling positions, when a move is
+ * searched again with a wider window and by the other threads.
+ * <p>
+ * The cache has a fixed power-of-two number of entries (found from a memory budget) indexed by the lowest bits of the
+ * hash. A new evaluation replaces the one in its entry.
+ * <p>
+ * Like the {@link TranspositionTable}, the cache is shared by the search threads without locks: an entry is the hash
+ * XOR the data and the data, so an entry written by two threads at once is seen as a miss.
+ */
+class EvaluationCache {
+    /**
+     * Returned by {@link #probe(long)} when the position is not in the cache (no evaluation is this low)
+     */
+    static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * Longs used by one entry (key XOR data + data)
+     */
+    private static final int ENTRY_LONGS = 2;
+
+    private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Set in the data of every entry such that the data of a filled entry is never 0
+     */
+    private static final long FILLED = 1L << Integer.SIZE;
+
+    /**
+     * Entry i is at index 2i (hash XOR data) and 2i + 1 (data)
+     */
+    private final long[] entries;
+
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param megabytes the memory budget of the cache. The number of entries is the largest power of two that fits
+     */
+    EvaluationCache(int megabytes) {
+        if (megabytes <= 0) throw new IllegalArgumentException("The size of the cache must be positive: " + megabytes);
+
+        long maxEntries = (long) megabytes * BYTES_PER_MEGABYTE / (ENTRY_LONGS * Long.BYTES);
+        int size = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 29));
+
+        entries = new long[size * ENTRY_LONGS];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the evaluation of the position or {@link #NOT_FOUND}
+     */
+    int probe(long hash) {
+        int index = ((int) hash & mask) * ENTRY_LONGS;
+        long data = entries[index + 1];
+
+        if (data != 0 && (entries[index] ^ data) == hash) {
+            hits.increment();
+            return (int) data;
+        }
+
+        misses.increment();
+        return NOT_FOUND;
+    }
+
+    void store(long hash, int evaluation) {
+        int index = ((int) hash & mask) * ENTRY_LONGS;
+        long data = FILLED | (evaluation & 0xFFFFFFFFL);
+
+        entries[index] = hash ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * Removes every entry and resets the counters
+     */
+    void clear() {
+        Arrays.fill(entries, 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    int getCapacity() {
+        return entries.length / ENTRY_LONGS;
+    }
+
+    /**
+     * @return the number of probes that found the position
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of probes that did not find the position (the position had to be evaluated)
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        long probes = getHits() + getMisses();
+        return getCapacity() + " entries, " + getHits() + " hits, " + getMisses() + " misses" +
+                (probes == 0 ? "" : " (" + getHits() * 100 / probes + "% hits)");
+    }
+}
@@ -0,0 +1,205 @@
+package model.player;
+
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.pieces.PieceType;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scores the moves such that the moves most likely to be the best are searched first. Alpha-beta only skips moves
+ * once a good move was found, so the sooner the best move is searched the more moves are skipped.
+ * <p>
+ * The order is:
+ * <ol>
+ * <li>the best move found by a previous search of the position (the hash move)</li>
+ * <li>the captures and promotions to a queen that don't lose material. The most material won first (see {@link StaticExchange}),
+ * then the most valuable victim and then the least valuable attacker (MVV-LVA)</li>
+ * <li>the killer moves: two quiet moves per ply that were too good for the opponent in a sibling position</li>
+ * <li>the other quiet moves by how often they were too good in the whole search (history heuristic)</li>
+ * <li>the losing captures (the piece that eats is lost in the exchange that follows)</li>
+ * </ol>
+ * The {@link MovePicker} uses the same order but only generates the moves of a group when they are needed.
+ */
+class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int FIRST_KILLER_SCORE = 90_000;
+    private static final int SECOND_KILLER_SCORE = 80_000;
+
+    /**
+     * Subtracted from the score of the losing captures such that they are searched after the quiet moves
+     */
+    private static final int LOSING_CAPTURE_PENALTY = 200_000;
+
+    /**
+     * The history scores are halved when one reaches this value such that they stay under the killer scores
+     */
+    private static final int MAX_HISTORY = 50_000;
+
+    /**
+     * A history score above this is good (see {@link #hasGoodHistory(int, Colour)})
+     */
+    private static final int GOOD_HISTORY = MAX_HISTORY / 8;
+
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+    private static final int NUMBER_OF_TYPES = PieceType.values().length;
+
+    /**
+     * The material won by a capture is worth more than any MVV-LVA score
+     */
+    private static final int EXCHANGE_SCORE = 64;
+
+    @NotNull
+    private final StaticExchange staticExchange;
+
+    /**
+     * The killer moves of each ply (index 0 is the most recent)
+     */
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+
+    /**
+     * For each colour, start square and end square: how good the quiet move was (butterfly board)
+     */
+    private final int[][] history = new int[Colour.values().length][NUMBER_OF_SQUARES * NUMBER_OF_SQUARES];
+
+    /**
+     * @param board the board of the searched game data (used to find the material won by the captures)
+     */
+    MoveOrdering(@NotNull BoardMap board) {
+        this.staticExchange = new StaticExchange(board);
+    }
+
+    /**
+     * Called before each search. Killers are forgotten and the history of previous searches counts less
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = EncodedMove.NONE;
+            plyKillers[1] = EncodedMove.NONE;
+        }
+
+        ageHistory();
+    }
+
+    /**
+     * Gives a score to every move of the list (see {@link MoveList#pickBest(int)})
+     *
+     * @param hashMove the best move of a previous search ({@link EncodedMove#NONE} if none)
+     */
+    void scoreMoves(@NotNull MoveList moves, int hashMove, int ply, @NotNull Colour colour) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.setScore(i, scoreMove(moves.get(i), hashMove, ply, colour));
+        }
+    }
+
+    /**
+     * Only orders by material won and MVV-LVA. The losing captures have a negative score
+     */
+    void scoreCaptures(@NotNull MoveList moves) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.setScore(i, scoreCapture(moves.get(i)));
+        }
+    }
+
+    /**
+     * Orders the quiet moves by their history score
+     */
+    void scoreQuietMoves(@NotNull MoveList moves, @NotNull Colour colour) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.setScore(i, history[colour.ordinal()][getButterflyIndex(moves.get(i))]);
+        }
+    }
+
+    private int scoreMove(int move, int hashMove, int ply, @NotNull Colour colour) {
+        if (move == hashMove) return HASH_MOVE_SCORE;
+        if (isTactical(move)) return CAPTURE_SCORE + scoreCapture(move);
+        if (move == killers[ply][0]) return FIRST_KILLER_SCORE;
+        if (move == killers[ply][1]) return SECOND_KILLER_SCORE;
+
+        return history[colour.ordinal()][getButterflyIndex(move)];
+    }
+
+    /**
+     * @return the score of a capture: the material won and then MVV-LVA. Negative if the capture loses material
+     */
+    private int scoreCapture(int move) {
+        int exchange = staticExchange.evaluate(move);
+        int score = exchange * EXCHANGE_SCORE + scoreVictimAndAttacker(move);
+
+        return exchange < 0 ? score - LOSING_CAPTURE_PENALTY : score;
+    }
+
+    /**
+     * @return the MVV-LVA score of a capture (a promotion to a queen counts as eating a queen)
+     */
+    private static int scoreVictimAndAttacker(int move) {
+        PieceType victim = EncodedMove.getCaptured(move);
+        int victimScore = victim == null ? 0 : victim.ordinal();
+
+        if (EncodedMove.getFlag(move) == EncodedMove.PROMOTION && EncodedMove.getPromotion(move) == PieceType.QUEEN)
+            victimScore += PieceType.QUEEN.ordinal();
+
+        return victimScore * NUMBER_OF_TYPES + PieceType.KING.ordinal() - EncodedMove.getPiece(move).ordinal();
+    }
+
+    /**
+     * @return true if the move changes the material (these moves are not killers and have no history)
+     */
+    static boolean isTactical(int move) {
+        return EncodedMove.isCapture(move) ||
+                (EncodedMove.getFlag(move) == EncodedMove.PROMOTION && EncodedMove.getPromotion(move) == PieceType.QUEEN);
+    }
+
+    /**
+     * @param index 0 for the most recent killer, 1 for the other one
+     * @return the killer move ({@link EncodedMove#NONE} if none)
+     */
+    int getKiller(int ply, int index) {
+        return killers[ply][index];
+    }
+
+    boolean isKiller(int move, int ply) {
+        return move == killers[ply][0] || move == killers[ply][1];
+    }
+
+    /**
+     * @return true if the quiet move was often too good for the opponent (it is reduced less by the late move reductions)
+     */
+    boolean hasGoodHistory(int move, @NotNull Colour colour) {
+        return history[colour.ordinal()][getButterflyIndex(move)] > GOOD_HISTORY;
+    }
+
+    /**
+     * Called when a move was too good for the opponent (beta cutoff)
+     *
+     * @param depth the depth left when the move was searched. Cutoffs close to the root are worth more
+     */
+    void onCutoff(int move, int ply, int depth, @NotNull Colour colour) {
+        if (isTactical(move)) return;
+
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        int index = getButterflyIndex(move);
+        history[colour.ordinal()][index] += depth * depth;
+
+        if (history[colour.ordinal()][index] >= MAX_HISTORY) ageHistory();
+    }
+
+    private void ageHistory() {
+        for (int[] colourHistory : history) {
+            for (int i = 0; i < colourHistory.length; i++) {
+                colourHistory[i] /= 2;
+            }
+        }
+    }
+
+    private static int getButterflyIndex(int move) {
+        return EncodedMove.getFrom(move) * NUMBER_OF_SQUARES + EncodedMove.getTo(move);
+    }
+}
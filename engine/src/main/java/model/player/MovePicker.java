@@ -0,0 +1,211 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.util.Colour;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Gives the moves of a position one at a time in the order of the {@link MoveOrdering}, generating them in stages:
+ * <ol>
+ * <li>the hash move (only verified to be legal, nothing is generated)</li>
+ * <li>the winning captures (the captures are generated)</li>
+ * <li>the killer moves (only verified to be legal)</li>
+ * <li>the quiet moves (generated once the previous stages are done)</li>
+ * <li>the losing captures (already generated with the captures)</li>
+ * </ol>
+ * Most positions stop after the first or second move (the move is too good for the opponent), so the later stages are
+ * often never generated.
+ * <p>
+ * The search keeps one picker per ply. A picker is reused by calling one of the init methods.
+ */
+class MovePicker {
+    //The stages. Each stage moves on to the next one when it has no more moves
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int WINNING_CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int GENERATE_QUIET_MOVES = 4;
+    private static final int QUIET_MOVES = 5;
+    private static final int LOSING_CAPTURES = 6;
+    /**
+     * Used when all the moves are generated at once (root and evasions) and for the captures of the quiescence search
+     */
+    private static final int ORDERED_MOVES = 7;
+    private static final int DONE = 8;
+
+    @NotNull
+    private final GameData gameData;
+
+    @NotNull
+    private final MoveOrdering ordering;
+
+    private final MoveList captures = new MoveList();
+
+    /**
+     * The quiet moves (or all the moves in the {@link #ORDERED_MOVES} stage)
+     */
+    private final MoveList quietMoves = new MoveList();
+
+    @NotNull
+    private final Random random = new Random();
+
+    private int stage;
+    private Colour colour;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+
+    /**
+     * The index of the next move in the list of the current stage
+     */
+    private int captureIndex;
+    private int quietMoveIndex;
+    private int killerIndex;
+
+    /**
+     * True to stop the {@link #ORDERED_MOVES} stage at the first move with a negative score (the losing captures)
+     */
+    private boolean skipLosingCaptures;
+
+    MovePicker(@NotNull GameData gameData, @NotNull MoveOrdering ordering) {
+        this.gameData = gameData;
+        this.ordering = ordering;
+    }
+
+    /**
+     * Picks the moves in stages (see class description)
+     *
+     * @param hashMove the best move found by a previous search ({@link EncodedMove#NONE} if none)
+     */
+    void init(@NotNull Colour colour, int hashMove, int ply) {
+        this.colour = colour;
+        this.hashMove = hashMove;
+        this.firstKiller = ordering.getKiller(ply, 0);
+        this.secondKiller = ordering.getKiller(ply, 1);
+        this.stage = hashMove == EncodedMove.NONE ? GENERATE_CAPTURES : HASH_MOVE;
+    }
+
+    /**
+     * Generates all the moves at once. Used at the root (where every move is searched) and when in check
+     *
+     * @param shuffle true to search moves with the same score in a random order
+     */
+    void initAllMoves(@NotNull Colour colour, int hashMove, int ply, boolean shuffle) {
+        quietMoves.clear();
+        gameData.generateLegalMoves(colour, quietMoves);
+
+        if (shuffle) {
+            for (int i = quietMoves.size() - 1; i > 0; i--) {
+                quietMoves.swap(i, random.nextInt(i + 1));
+            }
+        }
+
+        ordering.scoreMoves(quietMoves, hashMove, ply, colour);
+        quietMoveIndex = 0;
+        skipLosingCaptures = false;
+        stage = ORDERED_MOVES;
+    }
+
+    /**
+     * Only picks the captures (and promotions to a queen) that don't lose material (see {@link StaticExchange}).
+     * Used by the quiescence search where a losing capture would only make the score worse
+     */
+    void initCaptures(@NotNull Colour colour) {
+        quietMoves.clear();
+        gameData.generateLegalCaptures(colour, quietMoves);
+        ordering.scoreCaptures(quietMoves);
+        quietMoveIndex = 0;
+        skipLosingCaptures = true;
+        stage = ORDERED_MOVES;
+    }
+
+    /**
+     * Goes through the stages until one gives a move. A stage without more moves moves on to the next stage and the loop
+     * continues with it
+     *
+     * @return the next legal move ({@link EncodedMove#NONE} once every move was given)
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE:
+                    stage = GENERATE_CAPTURES;
+                    if (gameData.isLegal(colour, hashMove)) return hashMove;
+                    break;
+                case GENERATE_CAPTURES:
+                    captures.clear();
+                    gameData.generateLegalCaptures(colour, captures);
+                    ordering.scoreCaptures(captures);
+                    captureIndex = 0;
+                    stage = WINNING_CAPTURES;
+                    break;
+                case WINNING_CAPTURES:
+                    while (captureIndex < captures.size()) {
+                        int move = captures.pickBest(captureIndex);
+
+                        //The losing captures have a negative score and are kept for later
+                        if (captures.getScore(captureIndex) < 0) break;
+
+                        captureIndex++;
+                        if (move != hashMove) return move;
+                    }
+
+                    killerIndex = 0;
+                    stage = KILLERS;
+                    break;
+                case KILLERS:
+                    while (killerIndex < 2) {
+                        int killer = killerIndex++ == 0 ? firstKiller : secondKiller;
+
+                        if (killer != EncodedMove.NONE && killer != hashMove && gameData.isLegal(colour, killer))
+                            return killer;
+                    }
+
+                    stage = GENERATE_QUIET_MOVES;
+                    break;
+                case GENERATE_QUIET_MOVES:
+                    quietMoves.clear();
+                    gameData.generateLegalQuietMoves(colour, quietMoves);
+                    ordering.scoreQuietMoves(quietMoves, colour);
+                    quietMoveIndex = 0;
+                    stage = QUIET_MOVES;
+                    break;
+                case QUIET_MOVES:
+                    while (quietMoveIndex < quietMoves.size()) {
+                        int move = quietMoves.pickBest(quietMoveIndex++);
+                        if (move != hashMove && move != firstKiller && move != secondKiller) return move;
+                    }
+
+                    stage = LOSING_CAPTURES;
+                    break;
+                case LOSING_CAPTURES:
+                    while (captureIndex < captures.size()) {
+                        int move = captures.pickBest(captureIndex++);
+                        if (move != hashMove) return move;
+                    }
+
+                    stage = DONE;
+                    return EncodedMove.NONE;
+                case ORDERED_MOVES:
+                    if (quietMoveIndex < quietMoves.size()) {
+                        int move = quietMoves.pickBest(quietMoveIndex);
+
+                        //Once a losing capture is picked, the moves left are all losing captures
+                        if (!skipLosingCaptures || quietMoves.getScore(quietMoveIndex) >= 0) {
+                            quietMoveIndex++;
+                            return move;
+                        }
+                    }
+
+                    stage = DONE;
+                    return EncodedMove.NONE;
+                default:
+                    return EncodedMove.NONE;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package model.player;
+
+import model.util.BoardMap;
+import model.util.Colour;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Caches the evaluation of the pawn structure (see {@link PawnStructure}) by pawn hash (see {@link model.GameData#getPawnHash()}).
+ * The pawns only change on a small fraction of the moves, so most positions of a search share their pawn structure with
+ * positions already evaluated.
+ * <p>
+ * The table has a fixed power-of-two number of entries indexed by the lowest bits of the pawn hash. A new structure
+ * replaces the one in its entry. Each search has its own table (it is not shared between threads).
+ * <p>
+ * An empty entry has the hash and scores of a position without pawns, so it never needs to be told apart.
+ */
+class PawnHashTable {
+    /**
+     * The default number of entries
+     */
+    static final int DEFAULT_SIZE = 1 << 14;
+
+    private final long[] keys;
+    private final int[] middlegameScores;
+    private final int[] endgameScores;
+
+    /**
+     * The passed pawns of each colour (used by evaluation terms that depend on the other pieces too)
+     */
+    private final long[][] passedPawns;
+
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param size the number of entries (a power of two)
+     */
+    PawnHashTable(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("The size must be a positive power of two: " + size);
+
+        keys = new long[size];
+        middlegameScores = new int[size];
+        endgameScores = new int[size];
+        passedPawns = new long[Colour.values().length][size];
+        mask = size - 1;
+    }
+
+    /**
+     * Finds the entry of the pawn structure. The structure is evaluated and stored if it is not in the table
+     *
+     * @param pawnHash the pawn hash of the position on the board
+     * @return the entry of the pawn structure (valid until the next probe)
+     */
+    int probe(long pawnHash, @NotNull BoardMap board) {
+        int entry = (int) pawnHash & mask;
+
+        if (keys[entry] == pawnHash) {
+            hits++;
+            return entry;
+        }
+
+        misses++;
+        keys[entry] = pawnHash;
+        middlegameScores[entry] = PawnStructure.evaluateMiddlegame(board);
+        endgameScores[entry] = PawnStructure.evaluateEndgame(board);
+
+        for (Colour colour : Colour.values()) {
+            passedPawns[colour.ordinal()][entry] = PawnStructure.getPassedPawns(board, colour);
+        }
+
+        return entry;
+    }
+
+    /**
+     * @return the middlegame score of the pawn structure (positive is good for white)
+     */
+    int getMiddlegameScore(int entry) {
+        return middlegameScores[entry];
+    }
+
+    /**
+     * @return the endgame score of the pawn structure (positive is good for white)
+     */
+    int getEndgameScore(int entry) {
+        return endgameScores[entry];
+    }
+
+    /**
+     * @return the bitboard of the passed pawns of this colour
+     */
+    long getPassedPawns(int entry, @NotNull Colour colour) {
+        return passedPawns[colour.ordinal()][entry];
+    }
+
+    /**
+     * @return the number of probes that found the pawn structure
+     */
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of probes that had to evaluate the pawn structure
+     */
+    long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,146 @@
+package model.player;
+
+import model.pieces.PieceType;
+import model.util.Bitboard;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.LeaperAttacks;
+import model.util.Position;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The evaluation terms that only depend on the pawns: doubled, isolated, backward and passed pawns.
+ * These are slow to find but the pawns rarely move, so the results are cached in a {@link PawnHashTable}.
+ * <p>
+ * Scores are in hundredths of a pawn, positive is good for white (like {@link model.GameData#getMiddlegameScore()})
+ */
+final class PawnStructure {
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+
+    //Penalties per pawn (middlegame, endgame)
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+
+    /**
+     * The bonus of a passed pawn by the number of rows it moved from its starting row (more in the endgame)
+     */
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+
+    /**
+     * The squares of the column and of the neighbouring columns in front of a pawn of each colour.
+     * The pawn is passed if there is no enemy pawn on these squares
+     */
+    private static final long[][] PASSED_PAWN_MASKS = new long[Colour.values().length][NUMBER_OF_SQUARES];
+
+    /**
+     * The squares of the neighbouring columns on the same row and behind a pawn of each colour.
+     * The pawn is not backward if a pawn of the same colour is on these squares (it can protect the pawn when it moves)
+     */
+    private static final long[][] SUPPORT_MASKS = new long[Colour.values().length][NUMBER_OF_SQUARES];
+
+    static {
+        for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+            int row = square / Position.LIMIT;
+            int column = square % Position.LIMIT;
+
+            for (int otherSquare = 0; otherSquare < NUMBER_OF_SQUARES; otherSquare++) {
+                int otherRow = otherSquare / Position.LIMIT;
+                int columnDistance = Math.abs(otherSquare % Position.LIMIT - column);
+                long bit = Bitboard.of(otherSquare);
+
+                //White pawns move up (towards row 0)
+                if (columnDistance <= 1 && otherRow < row) PASSED_PAWN_MASKS[Colour.WHITE.ordinal()][square] |= bit;
+                if (columnDistance <= 1 && otherRow > row) PASSED_PAWN_MASKS[Colour.BLACK.ordinal()][square] |= bit;
+                if (columnDistance == 1 && otherRow >= row) SUPPORT_MASKS[Colour.WHITE.ordinal()][square] |= bit;
+                if (columnDistance == 1 && otherRow <= row) SUPPORT_MASKS[Colour.BLACK.ordinal()][square] |= bit;
+            }
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * @return the pawns of this colour that no enemy pawn can stop (none in front on the same or a neighbouring column)
+     */
+    static long getPassedPawns(@NotNull BoardMap board, @NotNull Colour colour) {
+        long enemyPawns = board.getBitboard(PieceType.PAWN, colour.getOpposite());
+        long passedPawns = 0;
+
+        for (long pawns = board.getBitboard(PieceType.PAWN, colour); pawns != 0; pawns = Bitboard.withoutFirstSquare(pawns)) {
+            int square = Bitboard.firstSquare(pawns);
+            if ((PASSED_PAWN_MASKS[colour.ordinal()][square] & enemyPawns) == 0) passedPawns |= Bitboard.of(square);
+        }
+
+        return passedPawns;
+    }
+
+    /**
+     * @return the middlegame score of the pawn structure (white's terms minus black's)
+     */
+    static int evaluateMiddlegame(@NotNull BoardMap board) {
+        return evaluate(board, Colour.WHITE, true) - evaluate(board, Colour.BLACK, true);
+    }
+
+    /**
+     * @return the endgame score of the pawn structure (white's terms minus black's)
+     */
+    static int evaluateEndgame(@NotNull BoardMap board) {
+        return evaluate(board, Colour.WHITE, false) - evaluate(board, Colour.BLACK, false);
+    }
+
+    private static int evaluate(@NotNull BoardMap board, @NotNull Colour colour, boolean middlegame) {
+        long ownPawns = board.getBitboard(PieceType.PAWN, colour);
+        long enemyPawns = board.getBitboard(PieceType.PAWN, colour.getOpposite());
+        int score = 0;
+
+        for (long pawns = ownPawns; pawns != 0; pawns = Bitboard.withoutFirstSquare(pawns)) {
+            int square = Bitboard.firstSquare(pawns);
+            int column = square % Position.LIMIT;
+            long neighbourColumns = getNeighbourColumns(column);
+
+            //Counted once for every pawn in front of another pawn of the same colour
+            if ((FIRST_COLUMN << column & PASSED_PAWN_MASKS[colour.ordinal()][square] & ownPawns) != 0)
+                score += middlegame ? DOUBLED_MIDDLEGAME : DOUBLED_ENDGAME;
+
+            if ((neighbourColumns & ownPawns) == 0) {
+                score += middlegame ? ISOLATED_MIDDLEGAME : ISOLATED_ENDGAME;
+            } else if ((SUPPORT_MASKS[colour.ordinal()][square] & ownPawns) == 0) {
+                //Backward: no pawn can protect it and it can't safely move since an enemy pawn attacks the square in front
+                int stopSquare = colour == Colour.WHITE ? square - Position.LIMIT : square + Position.LIMIT;
+
+                if ((LeaperAttacks.pawnAttacks(colour, stopSquare) & enemyPawns) != 0)
+                    score += middlegame ? BACKWARD_MIDDLEGAME : BACKWARD_ENDGAME;
+            }
+
+            if ((PASSED_PAWN_MASKS[colour.ordinal()][square] & enemyPawns) == 0) {
+                int advancement = getAdvancement(square, colour);
+                score += middlegame ? PASSED_MIDDLEGAME[advancement] : PASSED_ENDGAME[advancement];
+            }
+        }
+
+        return score;
+    }
+
+    /**
+     * @return the number of rows between the pawn and the home row of its colour (1 for a pawn that did not move)
+     */
+    private static int getAdvancement(int square, @NotNull Colour colour) {
+        int row = square / Position.LIMIT;
+        return colour == Colour.WHITE ? Position.LIMIT - 1 - row : row;
+    }
+
+    private static long getNeighbourColumns(int column) {
+        long columns = 0;
+        if (column > 0) columns |= FIRST_COLUMN << (column - 1);
+        if (column < Position.LIMIT - 1) columns |= FIRST_COLUMN << (column + 1);
+        return columns;
+    }
+}
@@ -1,52 +1,180 @@
 package model.player;
 
 import model.GameData;
+import model.moves.EncodedMove;
 import model.moves.Move;
 import model.util.Colour;
+import model.util.Network;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
-//TODO Upgrade algorithm to min/max with alpha-beta pruning
 //TODO Write tests because behaves weird
-//TODO consider moving pieces values (ex. pawn = 1) to this class since pieces should not be responsible for this algorithm
 
 /**
  * This player uses an algorithm to find the best next move.
- * The algorithm is a recursive min-max algorithm that uses the relative value of each move to evaluate the best move
+ * The algorithm is a negamax alpha-beta search (see {@link Search}) that evaluates positions by their material and the
+ * squares of the pieces (see {@link model.util.PieceSquareTables}).
+ * Positions that were already searched are found in a {@link TranspositionTable} instead of being searched again
  * <p>
- * There are two difficulty levels (Easy and Hard) they change the search depth of the algorithm
+ * The search can use several threads (Lazy SMP). Helper threads search the same position on their own copy of the game
+ * data and share the transposition table with the main search. The helpers don't return moves, they fill the table
+ * with results that the main search then finds instead of searching them.
+ * The results of Lazy SMP depend on the timing of the threads. When the results must be reproduced, the moves at the root
+ * can instead be split between the threads (see {@link ParallelSearch}).
+ * <p>
+ * There are two difficulty levels (Easy and Hard) they change the limits of the search (depth and time).
+ * Other limits can be used by creating a {@link Difficulty}
  */
 public class PlayerComputer extends Player {
     //The difficulty levels
-    public static final Difficulty EASY = new Difficulty(3, "Easy");
-    public static final Difficulty HARD = new Difficulty(4, "Hard");
+    public static final Difficulty EASY = new Difficulty(SearchLimits.depth(4).withMaxTime(1000), "Easy");
+    public static final Difficulty HARD = new Difficulty(SearchLimits.time(3000), "Hard");
+
+    /**
+     * The default memory budget of the transposition table in megabytes
+     */
+    private static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 16;
+
+    /**
+     * The default memory budget of the evaluation cache in megabytes
+     */
+    private static final int DEFAULT_EVALUATION_CACHE_SIZE = 4;
+
+    /**
+     * How long to wait for a helper thread to notice it was stopped before asking again (in milliseconds)
+     */
+    private static final int HELPER_JOIN_TIMEOUT = 10;
 
     /**
      * The difficulty level of the current instance of this player
      */
     private final Difficulty difficulty;
 
+    /**
+     * The memory budget of the transposition table in megabytes
+     */
+    private final int transpositionTableSize;
+
+    /**
+     * The number of threads that search (the main search and the helpers)
+     */
+    private final int threads;
+
+    /**
+     * How the threads share the search (only used with more than one thread)
+     */
+    @NotNull
+    private final ParallelSearch parallelSearch;
+
+    /**
+     * The selective search techniques used by the search
+     */
+    @NotNull
+    private SearchSettings settings = SearchSettings.DEFAULT;
+
+    /**
+     * The memory budget of the evaluation cache in megabytes (0 if there is no cache)
+     */
+    private int evaluationCacheSize = DEFAULT_EVALUATION_CACHE_SIZE;
+
+    /**
+     * Told the result of each iteration of the search (null if nobody listens)
+     */
+    @Nullable
+    private transient Consumer<SearchInfo> searchListener;
+
     /**
      * The game data
      */
     @Nullable
     private GameData gameData;
 
+    /**
+     * The results of the searched positions. Kept between moves since positions found deep in the previous search
+     * are often searched again
+     */
+    @Nullable
+    private transient TranspositionTable transpositionTable;
+
+    /**
+     * The evaluations of the positions already evaluated, shared by all the searches (null before the first move and
+     * when there is no cache)
+     */
+    @Nullable
+    private transient EvaluationCache evaluationCache;
+
+    /**
+     * The evaluation network (null to use the handcrafted evaluation). Not saved with the game
+     */
+    @Nullable
+    private transient Network network;
+
+    /**
+     * The search on the game data (created on the first move)
+     */
+    @Nullable
+    private transient Search search;
+
+    /**
+     * The search used instead of {@link #search} when the root moves are split between the threads
+     */
+    @Nullable
+    private transient RootSplitSearch rootSplitSearch;
+
     /**
      * @param difficulty the difficulty level for the algorithm
      */
     public PlayerComputer(Difficulty difficulty) {
+        this(difficulty, DEFAULT_TRANSPOSITION_TABLE_SIZE);
+    }
+
+    /**
+     * @param difficulty             the difficulty level for the algorithm
+     * @param transpositionTableSize the memory budget of the transposition table in megabytes
+     */
+    public PlayerComputer(Difficulty difficulty, int transpositionTableSize) {
+        this(difficulty, transpositionTableSize, 1);
+    }
+
+    /**
+     * @param difficulty             the difficulty level for the algorithm
+     * @param transpositionTableSize the memory budget of the transposition table in megabytes
+     * @param threads                the number of threads to search with (usually the number of cores)
+     */
+    public PlayerComputer(Difficulty difficulty, int transpositionTableSize, int threads) {
+        this(difficulty, transpositionTableSize, threads, ParallelSearch.LAZY_SMP);
+    }
+
+    /**
+     * @param difficulty             the difficulty level for the algorithm
+     * @param transpositionTableSize the memory budget of the transposition table in megabytes
+     * @param threads                the number of threads to search with (usually the number of cores)
+     * @param parallelSearch         how the threads share the search
+     */
+    public PlayerComputer(Difficulty difficulty, int transpositionTableSize, int threads, @NotNull ParallelSearch parallelSearch) {
+        if (transpositionTableSize <= 0)
+            throw new IllegalArgumentException("The transposition table size must be positive: " + transpositionTableSize);
+        if (threads <= 0) throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+
         this.difficulty = difficulty;
+        this.transpositionTableSize = transpositionTableSize;
+        this.threads = threads;
+        this.parallelSearch = parallelSearch;
     }
 
     @Override
     public void initializeGameData(@NotNull GameData gameData) {
         this.gameData = gameData;
+        this.search = null;
+
+        //The threads of the pool are not needed anymore
+        if (rootSplitSearch != null) rootSplitSearch.close();
+        this.rootSplitSearch = null;
     }
 
     /**
@@ -54,117 +182,196 @@ public class PlayerComputer extends Player {
      */
     @Override
     public void getMove(@NotNull Consumer<Move> callback, Colour colour) {
-        new Thread(() ->
-                callback.accept(
-                        calculateBestMove(new MoveSequence(), colour)
-                                .getFirstMove()
-                )
-        ).start();
+        new Thread(() -> {
+            if (evaluationCache == null && evaluationCacheSize > 0) evaluationCache = new EvaluationCache(evaluationCacheSize);
+
+            if (threads > 1 && parallelSearch != ParallelSearch.LAZY_SMP) {
+                if (rootSplitSearch == null)
+                    rootSplitSearch = new RootSplitSearch(gameData, threads, transpositionTableSize,
+                            parallelSearch == ParallelSearch.YOUNG_BROTHERS_WAIT);
+
+                rootSplitSearch.setSettings(settings);
+                rootSplitSearch.setEvaluationCache(evaluationCache);
+                rootSplitSearch.setNetwork(network);
+                rootSplitSearch.setListener(searchListener);
+                callback.accept(EncodedMove.toMove(rootSplitSearch.findBestMove(colour, difficulty.limits)));
+                return;
+            }
+
+            if (transpositionTable == null) transpositionTable = new TranspositionTable(transpositionTableSize);
+            if (search == null) search = new Search(gameData, transpositionTable);
+            search.setSettings(settings);
+            search.setEvaluationCache(evaluationCache);
+            search.setNetwork(network);
+            search.setListener(searchListener);
+
+            callback.accept(EncodedMove.toMove(findBestMove(colour)));
+        }).start();
     }
 
-    @NotNull
-    private MoveSequence calculateBestMove(MoveSequence pastSequence, Colour colour) {
-        //If we've reached the max depth return the current sequence
-        if (pastSequence.getLength() == difficulty.searchDepth) return pastSequence;
-
-        //Calculate all the possible moves
-        Collection<Move> possibleMoves = gameData.getPossibleLegalMoves(colour);
-
-        //The best move
-        MoveSequence bestMove = null;
-
-        for (Move move : possibleMoves) {
-            move.apply(gameData); //Apply the move to the data
-
-            //Calculate the value of this move (using recursion)
-            MoveSequence moveSequence = calculateBestMove(new MoveSequence(pastSequence, move), getOppositeColour(colour));
-
-            //If the move is better than bestMove update bestMove.
-            //If the move is equal to bestMove update bestMove 50% of the time (to allow for variation)
-            if (bestMove == null) {
-                bestMove = moveSequence;
-            } else {
-                if (colour == Colour.WHITE) {
-                    if (moveSequence.getSequenceValue() > bestMove.getSequenceValue()
-                            || (moveSequence.getSequenceValue() == bestMove.getSequenceValue() && Math.random() > 0.5)) {
-                        bestMove = moveSequence;
-                    }
-                } else {
-                    if (moveSequence.getSequenceValue() < bestMove.getSequenceValue()
-                            || (moveSequence.getSequenceValue() == bestMove.getSequenceValue() && Math.random() > 0.5)) {
-                        bestMove = moveSequence;
-                    }
+    /**
+     * Starts the helper threads, runs the main search on this thread and stops the helpers once the main search is done
+     *
+     * @return the move of the main search
+     */
+    private int findBestMove(Colour colour) {
+        List<Search> helpers = new ArrayList<>();
+        List<Thread> helperThreads = new ArrayList<>();
+
+        //Each helper searches its own copy of the game data. They are only limited by depth, the main search stops them
+        SearchLimits helperLimits = SearchLimits.depth(difficulty.limits.getMaxDepth());
+
+        for (int i = 1; i < threads; i++) {
+            Search helper = new Search(gameData.copy(), transpositionTable, i);
+            helper.setSettings(settings);
+            helper.setEvaluationCache(evaluationCache);
+            helper.setNetwork(network);
+            Thread thread = new Thread(() -> helper.findBestMove(colour, helperLimits), "Search helper " + i);
+            thread.setDaemon(true);
+
+            helpers.add(helper);
+            helperThreads.add(thread);
+            thread.start();
+        }
+
+        int move = search.findBestMove(colour, difficulty.limits);
+
+        //A helper might not have started its search when it is first stopped, so it is stopped until it ends
+        for (int i = 0; i < helperThreads.size(); i++) {
+            try {
+                while (helperThreads.get(i).isAlive()) {
+                    helpers.get(i).stop();
+                    helperThreads.get(i).join(HELPER_JOIN_TIMEOUT);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-
-            move.undo(gameData); //Undo changes
         }
 
-        return bestMove == null ? pastSequence : bestMove;
+        return move;
     }
 
     /**
-     * @return the opposite colour (used to switch turns)
+     * Stops the current search (the helper threads stop with it). The best move found so far is returned through the
+     * callback of {@link #getMove(Consumer, Colour)}. Needed to end an {@link SearchLimits#INFINITE} search
      */
+    public void stopSearch() {
+        if (search != null) search.stop();
+        if (rootSplitSearch != null) rootSplitSearch.stop();
+    }
+
     @NotNull
-    private Colour getOppositeColour(Colour colour) {
-        return colour == Colour.WHITE ? Colour.BLACK : Colour.WHITE;
+    public SearchSettings getSettings() {
+        return settings;
     }
 
     /**
-     * An object representing a series of moves and its value
+     * Changes the selective search techniques (null move pruning, late move reductions, futility pruning and razoring).
+     * Used from the next move
      */
-    private class MoveSequence {
-        @NotNull
-        private final LinkedList<Move> moves;
+    public void setSettings(@NotNull SearchSettings settings) {
+        this.settings = settings;
+    }
 
-        /**
-         * The sum of the value of each move
-         */
-        private final int sequenceValue;
+    @Nullable
+    public Network getNetwork() {
+        return network;
+    }
 
-        MoveSequence() {
-            this.sequenceValue = 0;
-            this.moves = new LinkedList<>();
-        }
+    /**
+     * Chooses the evaluation used from the next move: a network loaded with {@link Network#load(java.nio.file.Path)}
+     * or the handcrafted evaluation (material, piece-square tables and pawn structure). The evaluation cache is emptied
+     * since it holds the evaluations of the previous evaluation
+     *
+     * @param network the evaluation network (null to use the handcrafted evaluation)
+     */
+    public void setNetwork(@Nullable Network network) {
+        this.network = network;
+        this.evaluationCache = null;
+    }
 
-        private MoveSequence(MoveSequence moveSequence, @NotNull Move move) {
-            this.moves = new LinkedList<>(moveSequence.moves);
-            this.moves.add(move);
-            this.sequenceValue = moveSequence.sequenceValue + move.getValue();
-        }
+    public int getEvaluationCacheSize() {
+        return evaluationCacheSize;
+    }
 
-        int getSequenceValue() {
-            return sequenceValue;
-        }
+    /**
+     * Changes the memory budget of the evaluation cache, which remembers the evaluations of the positions already
+     * evaluated. The cache is created again (empty) for the next move
+     *
+     * @param evaluationCacheSize the memory budget in megabytes (0 to evaluate every position)
+     */
+    public void setEvaluationCacheSize(int evaluationCacheSize) {
+        if (evaluationCacheSize < 0)
+            throw new IllegalArgumentException("The evaluation cache size can't be negative: " + evaluationCacheSize);
 
-        int getLength() {
-            return moves.size();
-        }
+        this.evaluationCacheSize = evaluationCacheSize;
+        this.evaluationCache = null;
+    }
 
-        Move getFirstMove() {
-            return moves.getFirst();
-        }
+    /**
+     * Used for analysis: the depth, score, number of positions and principal variation of each iteration of the search.
+     * Only the main search reports (not the Lazy SMP helpers). Called from the search thread
+     *
+     * @param searchListener told the result of each iteration (null to stop listening)
+     */
+    public void setSearchListener(@Nullable Consumer<SearchInfo> searchListener) {
+        this.searchListener = searchListener;
+    }
 
-        @Override
-        public String toString() {
-            StringBuilder stringBuilder = new StringBuilder();
+    /**
+     * Used to choose the size of the transposition table. Many collisions compared to hits mean the table is too small
+     *
+     * @return the number of entries, hits, misses and collisions of the transposition table (null before the first move).
+     * When the root moves are split between the threads, the tables of all the threads together
+     */
+    @Nullable
+    public String getTranspositionTableStatistics() {
+        if (rootSplitSearch != null) return rootSplitSearch.getTranspositionTableStatistics();
+        return transpositionTable == null ? null : transpositionTable.toString();
+    }
 
-            moves.forEach(obj -> stringBuilder.append(obj).append(" "));
+    /**
+     * Used to choose the size of the evaluation cache. A low hit rate with a large cache means the positions are rarely
+     * evaluated twice
+     *
+     * @return the number of entries, hits and misses of the evaluation cache (null before the first move and when there
+     * is no cache)
+     */
+    @Nullable
+    public String getEvaluationCacheStatistics() {
+        return evaluationCache == null ? null : evaluationCache.toString();
+    }
 
-            return stringBuilder.toString();
-        }
+    /**
+     * How several threads share the search
+     */
+    public enum ParallelSearch {
+        /**
+         * Every thread searches the whole position and they share the transposition table. Fast but the result depends
+         * on the timing of the threads
+         */
+        LAZY_SMP,
+        /**
+         * The moves at the root are split between the threads and searched with a full window. The result can be reproduced
+         */
+        ROOT_SPLITTING,
+        /**
+         * Like {@link #ROOT_SPLITTING} but the best move is searched first and the other moves only have to prove that they are
+         * not better (young brothers wait). Searches fewer positions. The result can be reproduced
+         */
+        YOUNG_BROTHERS_WAIT
     }
 
     /**
-     * The difficulty of the algorithm. Has a search depth and a name
+     * The difficulty of the algorithm. Has search limits and a name
      */
-    private static class Difficulty implements Serializable {
-        private final int searchDepth;
+    public static class Difficulty implements Serializable {
+        @NotNull
+        private final SearchLimits limits;
         private final String name;
 
-        Difficulty(int searchDepth, String name) {
-            this.searchDepth = searchDepth;
+        public Difficulty(@NotNull SearchLimits limits, String name) {
+            this.limits = limits;
             this.name = name;
         }
     }
@@ -0,0 +1,353 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.util.Colour;
+import model.util.Network;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * A parallel search that gives the same result every time (unlike the Lazy SMP search of {@link PlayerComputer}).
+ * <p>
+ * The moves at the root are split between the threads of a {@link ForkJoinPool}. Each thread has a worker: a
+ * {@link Search} with its own copy of the game data and its own transposition table (allocated once and cleared before
+ * each search). A worker searches its root moves one after the other in the order of the root moves, and the root moves
+ * are given to the workers by their index. Nothing is shared between the workers, so the result only depends on the
+ * position, the depth and the number of threads.
+ * <p>
+ * The search is deepened one move at a time. With young brothers wait (YBWC) the best move of the previous iteration
+ * (the eldest brother) is searched first, alone. The other moves are then searched in parallel with a null window at its
+ * score, and the ones that are better are searched again with a full window. Without it every move is searched in parallel
+ * with a full window (more positions but no waiting).
+ * <p>
+ * Only searches limited by depth are reproducible. The time limit and the node limit (counted for each worker) stop
+ * the search at a point that depends on the speed of the threads.
+ * <p>
+ * The threads of the pool are kept until the search is closed.
+ */
+class RootSplitSearch implements AutoCloseable {
+    @NotNull
+    private final GameData gameData;
+
+    @NotNull
+    private final ForkJoinPool pool;
+
+    /**
+     * The transposition table of each worker (reused by every search)
+     */
+    @NotNull
+    private final TranspositionTable[] transpositionTables;
+
+    private final boolean youngBrothersWait;
+
+    /**
+     * The search of each worker (same index as {@link #transpositionTables})
+     */
+    private volatile Search[] searches = new Search[0];
+
+    @NotNull
+    private final MoveList rootMoves = new MoveList();
+
+    /**
+     * The score of each root move in the current iteration (same index as {@link #rootMoves})
+     */
+    private int[] scores = new int[0];
+
+    /**
+     * The principal variation of each root move in the current iteration (same index as {@link #rootMoves})
+     */
+    private int[][] principalVariations = new int[0][];
+
+    private volatile boolean stopped;
+
+    @NotNull
+    private SearchSettings settings = SearchSettings.DEFAULT;
+
+    /**
+     * Shared by the searches of all the root moves (null to evaluate every position). An evaluation only depends on the
+     * position, so sharing the cache does not change the result
+     */
+    @Nullable
+    private EvaluationCache evaluationCache;
+
+    /**
+     * The evaluation network of the searches (null to use the handcrafted evaluation)
+     */
+    @Nullable
+    private Network network;
+
+    /**
+     * Told the result of each iteration (null if nobody listens)
+     */
+    @Nullable
+    private Consumer<SearchInfo> listener;
+
+    /**
+     * @param threads                the number of threads of the pool (and of workers)
+     * @param transpositionTableSize the memory budget of all the transposition tables in megabytes (split between the
+     *                               workers, at least 1 megabyte each)
+     * @param youngBrothersWait      true to search the best move first and the other moves with a null window at its score
+     */
+    RootSplitSearch(@NotNull GameData gameData, int threads, int transpositionTableSize, boolean youngBrothersWait) {
+        this.gameData = gameData;
+        this.pool = new ForkJoinPool(threads);
+        this.transpositionTables = new TranspositionTable[threads];
+        this.youngBrothersWait = youngBrothersWait;
+
+        for (int i = 0; i < threads; i++) {
+            transpositionTables[i] = new TranspositionTable(Math.max(1, transpositionTableSize / threads));
+        }
+    }
+
+    /**
+     * Deepens the search one move at a time until a limit is reached or the search is stopped.
+     * The best move of the deepest completed iteration is returned
+     *
+     * @param colour the player to move
+     * @param limits when to stop the search
+     * @return the best move ({@link EncodedMove#NONE} if the player can't move)
+     */
+    int findBestMove(@NotNull Colour colour, @NotNull SearchLimits limits) {
+        long start = System.nanoTime();
+        long deadline = limits.hasMaxTime() ? start + limits.getMaxTime() * 1_000_000 : Long.MAX_VALUE;
+        stopped = false;
+
+        //The moves are not shuffled such that the result can be reproduced
+        rootMoves.clear();
+        gameData.generateLegalMoves(colour, rootMoves);
+        if (rootMoves.isEmpty()) return EncodedMove.NONE;
+
+        createSearches(limits, start);
+
+        for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+            if (youngBrothersWait) searchYoungBrothersWait(depth, colour);
+            else searchAll(depth, -Search.INFINITY, Search.INFINITY, colour, 0, false);
+
+            //The scores of a stopped iteration are not reliable, the order of the previous iteration is kept
+            if (stopped || isAnySearchStopped()) break;
+
+            sortRootMoves();
+
+            if (listener != null) {
+                listener.accept(new SearchInfo(depth, scores[0], getNodes(), (System.nanoTime() - start) / 1_000_000,
+                        principalVariations[0]));
+            }
+
+            if (limits.hasMaxTime() && System.nanoTime() - start > (deadline - start) / 2) break;
+        }
+
+        return rootMoves.get(0);
+    }
+
+    /**
+     * Creates the search of each worker on its own copy of the current game data. The tables are cleared such that the
+     * result does not depend on the previous searches
+     */
+    private void createSearches(@NotNull SearchLimits limits, long start) {
+        Search[] searches = new Search[transpositionTables.length];
+
+        for (int i = 0; i < searches.length; i++) {
+            transpositionTables[i].clear();
+            searches[i] = new Search(gameData.copy(), transpositionTables[i]);
+            searches[i].setSettings(settings);
+            searches[i].setEvaluationCache(evaluationCache);
+            searches[i].setNetwork(network);
+            searches[i].startSearch(limits, start);
+        }
+
+        this.searches = searches;
+        this.scores = new int[rootMoves.size()];
+        this.principalVariations = new int[rootMoves.size()][];
+    }
+
+    /**
+     * Searches the first root move alone and the others in parallel with a null window at its score.
+     * The moves better than the first one are searched again (in parallel) to get their exact score
+     */
+    private void searchYoungBrothersWait(int depth, @NotNull Colour colour) {
+        searchRootMove(searches[0], 0, depth, -Search.INFINITY, Search.INFINITY, colour);
+        int alpha = scores[0];
+
+        searchAll(depth, alpha, alpha + 1, colour, 1, false);
+        searchAll(depth, alpha, Search.INFINITY, colour, 1, true);
+    }
+
+    /**
+     * Searches the root moves from firstMove in parallel, each worker searching its own root moves
+     *
+     * @param onlyFailHigh true to only search the moves that scored more than alpha
+     */
+    private void searchAll(int depth, int alpha, int beta, @NotNull Colour colour, int firstMove, boolean onlyFailHigh) {
+        if (firstMove < rootMoves.size())
+            pool.invoke(new WorkersTask(0, searches.length, firstMove, depth, alpha, beta, colour, onlyFailHigh));
+    }
+
+    /**
+     * Searches a root move and keeps its score and principal variation
+     *
+     * @param index the index of the root move
+     */
+    private void searchRootMove(@NotNull Search search, int index, int depth, int alpha, int beta, @NotNull Colour colour) {
+        scores[index] = search.searchRootMove(rootMoves.get(index), depth, alpha, beta, colour);
+        principalVariations[index] = search.getPrincipalVariation();
+    }
+
+    private boolean isAnySearchStopped() {
+        for (Search search : searches) {
+            if (search.isStopped()) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Sorts the root moves from the best score to the worst score. Moves with the same score keep their order
+     * (insertion sort since there are few moves and they are mostly sorted)
+     */
+    private void sortRootMoves() {
+        for (int i = 1; i < rootMoves.size(); i++) {
+            for (int j = i; j > 0 && scores[j] > scores[j - 1]; j--) {
+                rootMoves.swap(j, j - 1);
+
+                int score = scores[j];
+                scores[j] = scores[j - 1];
+                scores[j - 1] = score;
+
+                int[] principalVariation = principalVariations[j];
+                principalVariations[j] = principalVariations[j - 1];
+                principalVariations[j - 1] = principalVariation;
+            }
+        }
+    }
+
+    /**
+     * Changes the selective search techniques used by the next searches
+     */
+    void setSettings(@NotNull SearchSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @param evaluationCache where the searches remember evaluations (null to evaluate every position)
+     */
+    void setEvaluationCache(@Nullable EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+    }
+
+    /**
+     * @param network the evaluation network of the searches (null to use the handcrafted evaluation)
+     */
+    void setNetwork(@Nullable Network network) {
+        this.network = network;
+    }
+
+    /**
+     * @param listener told the result of each iteration (null to stop listening)
+     */
+    void setListener(@Nullable Consumer<SearchInfo> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops the search. Can be called from another thread
+     */
+    void stop() {
+        stopped = true;
+
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * @return the number of positions searched by the last search (all the workers)
+     */
+    long getNodes() {
+        long nodes = 0;
+
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Used to choose the size of the transposition tables. Many collisions compared to hits mean the tables are too small
+     *
+     * @return the number of entries, hits, misses and collisions of the tables of all the workers together
+     */
+    @NotNull
+    String getTranspositionTableStatistics() {
+        long capacity = 0;
+        long hits = 0;
+        long misses = 0;
+        long collisions = 0;
+
+        for (TranspositionTable table : transpositionTables) {
+            capacity += table.getCapacity();
+            hits += table.getHits();
+            misses += table.getMisses();
+            collisions += table.getCollisions();
+        }
+
+        return capacity + " entries, " + hits + " hits, " + misses + " misses, " + collisions + " collisions";
+    }
+
+    /**
+     * Stops the threads of the pool. The search can't be used afterwards
+     */
+    @Override
+    public void close() {
+        stop();
+        pool.shutdown();
+    }
+
+    /**
+     * Runs a range of workers. The range is split in half until it has a single worker, which searches the root moves
+     * given to it one after the other
+     */
+    private class WorkersTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int firstMove;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        @NotNull
+        private final Colour colour;
+        private final boolean onlyFailHigh;
+
+        WorkersTask(int from, int to, int firstMove, int depth, int alpha, int beta, @NotNull Colour colour, boolean onlyFailHigh) {
+            this.from = from;
+            this.to = to;
+            this.firstMove = firstMove;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.colour = colour;
+            this.onlyFailHigh = onlyFailHigh;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) / 2;
+                invokeAll(new WorkersTask(from, middle, firstMove, depth, alpha, beta, colour, onlyFailHigh),
+                        new WorkersTask(middle, to, firstMove, depth, alpha, beta, colour, onlyFailHigh));
+                return;
+            }
+
+            //The root moves are dealt to the workers in turn
+            for (int i = firstMove + from; i < rootMoves.size() && !stopped; i += searches.length) {
+                if (!onlyFailHigh || scores[i] > alpha) searchRootMove(searches[from], i, depth, alpha, beta, colour);
+            }
+        }
+    }
+}
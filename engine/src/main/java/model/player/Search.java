@@ -0,0 +1,715 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.pieces.PieceType;
+import model.util.Accumulator;
+import model.util.Bitboard;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Network;
+import model.util.PieceSquareTables;
+import model.util.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+
+/**
+ * Searches the best move of a position with a negamax alpha-beta search.
+ * <p>
+ * The search is deepened one move at a time. Each iteration searches with a small window (aspiration window) around
+ * the score of the previous iteration. Within an iteration the first move of each position is searched with the full
+ * window and the other moves with a null window (principal variation search) since they are expected to be worse
+ * (this relies on the {@link MoveOrdering}).
+ * Once the depth is reached only the captures are searched (quiescence search).
+ * Moves unlikely to change the result are pruned or searched less deeply (see {@link SearchSettings}).
+ * <p>
+ * Scores are in hundredths of a pawn and relative to the player to move (positive is good for the player to move)
+ */
+class Search {
+    static final int INFINITY = 1_000_000;
+
+    /**
+     * The score of a checkmate. A mate in n moves is worth MATE - n such that shorter mates are preferred
+     */
+    static final int MATE = 100_000;
+
+    private static final int DRAW = 0;
+
+    /**
+     * The maximum number of moves from the root that are searched
+     */
+    static final int MAX_PLY = 64;
+
+    /**
+     * The score of a pawn. The values of {@link PieceType} are in pawns
+     */
+    private static final int PAWN_SCORE = 100;
+
+    /**
+     * The half width of the first aspiration window. Doubled every time the score falls outside the window
+     */
+    private static final int ASPIRATION_WINDOW = PAWN_SCORE / 2;
+
+    /**
+     * The time and nodes are only checked every so many nodes since reading the clock is slow
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * The endgame bonus of a passed pawn with nothing on the square in front of it
+     */
+    private static final int UNBLOCKED_PASSED_PAWN_SCORE = 20;
+
+    //Depths at which the selective search techniques are used (see SearchSettings)
+    private static final int RAZORING_DEPTH = 2;
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int NULL_MOVE_MIN_DEPTH = 2;
+    /**
+     * Deeper than this the null move is searched one more move less deep
+     */
+    private static final int DEEP_NULL_MOVE_DEPTH = 6;
+    private static final int LATE_MOVE_MIN_DEPTH = 3;
+
+    /**
+     * The late move reduction by depth and index of the move. Grows with the logarithm of both
+     */
+    private static final int[][] LATE_MOVE_REDUCTIONS = new int[MAX_PLY][MoveList.CAPACITY];
+
+    static {
+        for (int depth = 1; depth < MAX_PLY; depth++) {
+            for (int moveIndex = 1; moveIndex < MoveList.CAPACITY; moveIndex++) {
+                LATE_MOVE_REDUCTIONS[depth][moveIndex] = (int) (0.75 + Math.log(depth) * Math.log(moveIndex) / 2.25);
+            }
+        }
+    }
+
+    @NotNull
+    private final GameData gameData;
+
+    @NotNull
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * One reusable move picker per ply of the search (index 0 is the root)
+     */
+    @NotNull
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+
+    /**
+     * The legal moves at the root (one is returned if the search is stopped before any move was searched)
+     */
+    @NotNull
+    private final MoveList rootMoves = new MoveList();
+
+    @NotNull
+    private final MoveOrdering ordering;
+
+    @NotNull
+    private final PawnHashTable pawnHashTable = new PawnHashTable(PawnHashTable.DEFAULT_SIZE);
+
+    /**
+     * The evaluations of the positions already evaluated (null to always evaluate). Can be shared with other searches
+     */
+    @Nullable
+    private EvaluationCache evaluationCache;
+
+    /**
+     * The first layer of the evaluation network, kept up to date by the game data (null to use the handcrafted evaluation)
+     */
+    @Nullable
+    private Accumulator accumulator;
+
+    /**
+     * True to search the root moves with the same score in a random order (to allow for variation). False to search the
+     * same way every time (used by benchmarks that compare the number of positions searched)
+     */
+    private boolean shuffleRootMoves = true;
+
+    /**
+     * The best move found at the root by the current iteration.
+     * Only set once the move was completely searched, such that it can be used even if the iteration is stopped
+     */
+    private int rootBestMove;
+
+    /**
+     * The principal variation (the best line for both players) found from each ply. Triangular: the line found from a ply
+     * is in principalVariations[ply] from index ply to principalVariationEnds[ply], and is the move of the ply followed by
+     * the line of the next ply. Preallocated such that the search does not create lines while searching
+     */
+    @NotNull
+    private final int[][] principalVariations = new int[MAX_PLY + 1][MAX_PLY + 1];
+
+    @NotNull
+    private final int[] principalVariationEnds = new int[MAX_PLY + 1];
+
+    /**
+     * Told the result of each iteration (null if nobody listens)
+     */
+    @Nullable
+    private Consumer<SearchInfo> listener;
+
+    /**
+     * The number of positions searched by the current search
+     */
+    private long nodes;
+
+    /**
+     * Set to stop the search (by the limits or by another thread)
+     */
+    private volatile boolean stopped;
+
+    @NotNull
+    private SearchLimits limits = SearchLimits.INFINITE;
+
+    /**
+     * The time when the search should stop (in nanoseconds, see {@link System#nanoTime()})
+     */
+    private long deadline;
+
+    /**
+     * Which selective search techniques are used
+     */
+    @NotNull
+    private SearchSettings settings = SearchSettings.DEFAULT;
+
+    /**
+     * 0 for the main search. Helper searches (see {@link PlayerComputer}) have a higher index
+     */
+    private final int threadIndex;
+
+    Search(@NotNull GameData gameData, @NotNull TranspositionTable transpositionTable) {
+        this(gameData, transpositionTable, 0);
+    }
+
+    /**
+     * @param threadIndex 0 for the main search. The helper searches of the Lazy SMP search share the transposition table
+     *                    of the main search and use an index starting at 1 such that they search different depths
+     */
+    Search(@NotNull GameData gameData, @NotNull TranspositionTable transpositionTable, int threadIndex) {
+        this.gameData = gameData;
+        this.transpositionTable = transpositionTable;
+        this.threadIndex = threadIndex;
+        this.ordering = new MoveOrdering(gameData.getBoard());
+
+        for (int i = 0; i < movePickers.length; i++) {
+            movePickers[i] = new MovePicker(gameData, ordering);
+        }
+    }
+
+    /**
+     * Deepens the search one move at a time until a limit is reached or the search is stopped.
+     * The best move of the deepest iteration is returned (a stopped iteration is used up to its last completely searched move)
+     *
+     * @param colour the player to move
+     * @param limits when to stop the search
+     * @return the best move ({@link EncodedMove#NONE} if the player can't move)
+     */
+    int findBestMove(@NotNull Colour colour, @NotNull SearchLimits limits) {
+        long start = System.nanoTime();
+        startSearch(limits, start);
+
+        //Have a move ready in case the search is stopped before the first iteration ends
+        rootMoves.clear();
+        gameData.generateLegalMoves(colour, rootMoves);
+        if (rootMoves.isEmpty()) return EncodedMove.NONE;
+
+        int bestMove = rootMoves.get(0);
+        int score = 0;
+
+        //Half of the helpers start one move deeper such that the threads are not all searching the same depth
+        for (int depth = 1 + threadIndex % 2; depth <= limits.getMaxDepth(); depth++) {
+            rootBestMove = EncodedMove.NONE;
+            score = searchWithAspirationWindow(depth, score, colour);
+
+            if (rootBestMove != EncodedMove.NONE) bestMove = rootBestMove;
+            if (stopped) break;
+
+            if (listener != null)
+                listener.accept(new SearchInfo(depth, score, nodes, (System.nanoTime() - start) / 1_000_000, getPrincipalVariation()));
+
+            //The next iteration usually takes longer than all the previous ones. Don't start it if it can't end in time
+            if (limits.hasMaxTime() && System.nanoTime() - start > (deadline - start) / 2) break;
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Resets the search for new limits. Called by {@link #findBestMove(Colour, SearchLimits)} or before searching single
+     * root moves with {@link #searchRootMove(int, int, int, int, Colour)}
+     *
+     * @param start when the search started (in nanoseconds, see {@link System#nanoTime()})
+     */
+    void startSearch(@NotNull SearchLimits limits, long start) {
+        this.limits = limits;
+        this.deadline = limits.hasMaxTime() ? start + limits.getMaxTime() * 1_000_000 : Long.MAX_VALUE;
+        this.nodes = 0;
+        this.stopped = false;
+        if (threadIndex == 0) transpositionTable.newSearch();
+        ordering.newSearch();
+    }
+
+    /**
+     * Searches a single root move (used by {@link RootSplitSearch} where the root moves are split between searches).
+     * The search must be started with {@link #startSearch(SearchLimits, long)}
+     *
+     * @param move   the root move
+     * @param depth  the depth of the root (the position after the move is searched one move less deep)
+     * @param colour the player making the move
+     * @return the score of the move for the player making it (not reliable if the search was stopped, see {@link #isStopped()})
+     */
+    int searchRootMove(int move, int depth, int alpha, int beta, @NotNull Colour colour) {
+        gameData.makeMove(move);
+        int score = -negamax(depth - 1, 1, -beta, -alpha, colour.getOpposite(), true);
+        gameData.undoMove();
+
+        updatePrincipalVariation(0, move);
+
+        return score;
+    }
+
+    /**
+     * @return the principal variation of the last search of the root (or root move), starting with the best move. Can be
+     * shorter than the depth when the end of the line was found in the transposition table
+     */
+    @NotNull
+    int[] getPrincipalVariation() {
+        return Arrays.copyOf(principalVariations[0], principalVariationEnds[0]);
+    }
+
+    /**
+     * @param listener told the result of each iteration (null to stop listening)
+     */
+    void setListener(@Nullable Consumer<SearchInfo> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return true if the limits were reached or the search was stopped
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Changes the selective search techniques used by the next searches
+     */
+    void setSettings(@NotNull SearchSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @param evaluationCache where evaluations are remembered (null to evaluate every position)
+     */
+    void setEvaluationCache(@Nullable EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+    }
+
+    /**
+     * Changes the evaluation used by the next searches. The cache must not keep evaluations of the other evaluation
+     *
+     * @param network the evaluation network (null to use the handcrafted evaluation)
+     */
+    void setNetwork(@Nullable Network network) {
+        gameData.setNetwork(network);
+        accumulator = gameData.getAccumulator();
+    }
+
+    /**
+     * Stops the search. Can be called from another thread. The best move found so far is returned by {@link #findBestMove(Colour, SearchLimits)}
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the number of positions searched by the last search
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the pawn structures cached by this search (kept between searches, with its hit and miss counters)
+     */
+    @NotNull
+    PawnHashTable getPawnHashTable() {
+        return pawnHashTable;
+    }
+
+    /**
+     * @param shuffleRootMoves false to search the same position the same way every time (see {@link #shuffleRootMoves})
+     */
+    void setShuffleRootMoves(boolean shuffleRootMoves) {
+        this.shuffleRootMoves = shuffleRootMoves;
+    }
+
+    /**
+     * Searches with a small window around the previous score. If the score is outside the window the search is repeated
+     * with a wider window
+     */
+    private int searchWithAspirationWindow(int depth, int previousScore, @NotNull Colour colour) {
+        //The first iteration has no previous score
+        if (depth == 1) return negamax(depth, 0, -INFINITY, INFINITY, colour, false);
+
+        int window = ASPIRATION_WINDOW;
+
+        while (true) {
+            int alpha = Math.max(previousScore - window, -INFINITY);
+            int beta = Math.min(previousScore + window, INFINITY);
+
+            int score = negamax(depth, 0, alpha, beta, colour, false);
+            if (stopped) return score;
+
+            if ((score <= alpha && alpha > -INFINITY) || (score >= beta && beta < INFINITY)) {
+                window *= 2;
+            } else {
+                return score;
+            }
+        }
+    }
+
+    /**
+     * @param depth         the number of moves left to search
+     * @param ply           the number of moves from the root
+     * @param alpha         the score the player to move is already sure to get
+     * @param beta          the score the opponent is already sure to get (the opponent won't allow a score higher than this)
+     * @param colour        the player to move
+     * @param allowNullMove false right after a null move (two null moves in a row would only search the same position less deep)
+     * @return the score of the position for the player to move
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, @NotNull Colour colour, boolean allowNullMove) {
+        principalVariationEnds[ply] = ply;
+
+        if (isOutOfBudget()) return DRAW; //The result is ignored
+
+        if (ply > 0 && gameData.isRepetition()) return DRAW;
+
+        if (ply == MAX_PLY) return evaluate(colour);
+
+        //Continue with the captures such that the position is only evaluated once it is quiet
+        if (depth <= 0) return quiescence(ply, alpha, beta, colour);
+
+        //The same position might have already been searched through another order of moves
+        long hash = gameData.getHash();
+        int hashMove = EncodedMove.NONE;
+        long entry = transpositionTable.probe(hash);
+
+        if (entry != TranspositionTable.NOT_FOUND) {
+            hashMove = TranspositionTable.getMove(entry);
+
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTranspositionTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) return score;
+            }
+        }
+
+        boolean inCheck = gameData.isInCheck(colour);
+
+        //The moves of a principal variation node (full window) are the ones that matter, they are never pruned
+        boolean principalVariation = beta - alpha > 1;
+        boolean canPrune = !principalVariation && !inCheck && !isMateScore(alpha) && !isMateScore(beta);
+        int staticScore = canPrune ? evaluate(colour) : -INFINITY;
+
+        //Razoring. Far below alpha close to the leaves, only the captures can bring the score back
+        if (canPrune && settings.hasRazoring() && depth <= RAZORING_DEPTH &&
+                staticScore + settings.getRazorMargin() * depth <= alpha) {
+            int score = quiescence(ply, alpha, alpha + 1, colour);
+            if (score <= alpha) return score;
+        }
+
+        //Null move pruning. If the opponent can't get back to beta after passing, a real move would do even better.
+        //Not used without pieces other than pawns (zugzwang: every move makes the position worse so passing is better)
+        if (canPrune && settings.hasNullMove() && allowNullMove && depth >= NULL_MOVE_MIN_DEPTH &&
+                staticScore >= beta && hasPiecesOtherThanPawns(colour)) {
+            int reduction = settings.getNullMoveReduction() + (depth > DEEP_NULL_MOVE_DEPTH ? 1 : 0);
+
+            gameData.makeNullMove();
+            int score = -negamax(depth - 1 - reduction, ply + 1, -beta, -beta + 1, colour.getOpposite(), false);
+            gameData.undoNullMove();
+
+            if (stopped) return DRAW;
+
+            //A mate found after passing is not proven (passing is not legal)
+            if (score >= beta) return isMateScore(score) ? beta : score;
+        }
+
+        //Futility pruning. Close to the leaves, a quiet move can't gain enough to bring the score up to alpha
+        int futilityScore = staticScore + settings.getFutilityMargin() * depth;
+        boolean futile = canPrune && settings.hasFutilityPruning() && depth <= FUTILITY_DEPTH && futilityScore <= alpha;
+
+        //The best move of a previous search is likely still the best. It is searched first, followed by the captures
+        MovePicker picker = movePickers[ply];
+
+        //At the root every move is searched so they are all generated. Moves with the same score are picked in a random order (to allow for variation)
+        if (ply == 0) picker.initAllMoves(colour, hashMove, ply, shuffleRootMoves);
+        else picker.init(colour, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = EncodedMove.NONE;
+        int numberOfMoves = 0;
+        int move;
+
+        while ((move = picker.next()) != EncodedMove.NONE) {
+            int moveIndex = numberOfMoves++;
+
+            //Only the quiet moves ordered late are pruned or reduced (not the hash move, captures and killers)
+            boolean late = moveIndex > 0 && !inCheck && !MoveOrdering.isTactical(move) && !ordering.isKiller(move, ply);
+            boolean reducible = late && settings.hasLateMoveReductions() && depth >= LATE_MOVE_MIN_DEPTH &&
+                    moveIndex >= settings.getLateMoveThreshold();
+
+            gameData.makeMove(move);
+
+            //Moves that give check are never pruned or reduced
+            if ((futile && late) || reducible) {
+                boolean givesCheck = gameData.isInCheck(colour.getOpposite());
+
+                if (futile && late && !givesCheck) {
+                    gameData.undoMove();
+                    if (futilityScore > bestScore) bestScore = futilityScore;
+                    continue;
+                }
+
+                reducible = !givesCheck;
+            }
+
+            int score;
+
+            if (moveIndex == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, colour.getOpposite(), true);
+            } else {
+                int reduction = reducible ? getLateMoveReduction(depth, moveIndex, move, colour, principalVariation) : 0;
+
+                //Only prove that the move is not better than alpha. If it is, search again to find its real score
+                score = -negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, colour.getOpposite(), true);
+
+                //A reduced move that looks better than alpha is searched again at the full depth
+                if (reduction > 0 && score > alpha)
+                    score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, colour.getOpposite(), true);
+
+                if (score > alpha && score < beta)
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha, colour.getOpposite(), true);
+            }
+
+            gameData.undoMove();
+
+            //The score of a stopped search is not reliable
+            if (stopped) return DRAW;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+
+                if (score > alpha) {
+                    alpha = score;
+                    if (ply == 0) rootBestMove = move;
+                    updatePrincipalVariation(ply, move);
+
+                    //The opponent will avoid this position since it already has a better option
+                    if (alpha >= beta) {
+                        ordering.onCutoff(move, ply, depth, colour);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (numberOfMoves == 0) return inCheck ? -MATE + ply : DRAW;
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(hash, depth, bound, toTranspositionTable(bestScore, ply), bestMove);
+
+        return bestScore;
+    }
+
+    /**
+     * The line of a ply becomes its move followed by the line of the next ply
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        int end = principalVariationEnds[ply + 1];
+
+        principalVariations[ply][ply] = move;
+        System.arraycopy(principalVariations[ply + 1], ply + 1, principalVariations[ply], ply + 1, end - ply - 1);
+        principalVariationEnds[ply] = end;
+    }
+
+    /**
+     * The later the move is in the order and the deeper the search, the more the move is reduced.
+     * Moves with a good history and moves of principal variation nodes are reduced less
+     *
+     * @return how many moves less deep the move is searched (0 to not reduce it)
+     */
+    private int getLateMoveReduction(int depth, int moveIndex, int move, @NotNull Colour colour, boolean principalVariation) {
+        int reduction = LATE_MOVE_REDUCTIONS[Math.min(depth, MAX_PLY - 1)][Math.min(moveIndex, MoveList.CAPACITY - 1)];
+
+        if (principalVariation) reduction--;
+        if (ordering.hasGoodHistory(move, colour)) reduction--;
+
+        //Search at least one move deeper (the quiescence search is done by the next ply)
+        return Math.max(0, Math.min(reduction, depth - 2));
+    }
+
+    /**
+     * @return true if the player has a knight, bishop, rook or queen (null moves are not safe with only pawns and a king)
+     */
+    private boolean hasPiecesOtherThanPawns(@NotNull Colour colour) {
+        BoardMap board = gameData.getBoard();
+
+        return (board.getBitboard(PieceType.KNIGHT, colour) | board.getBitboard(PieceType.BISHOP, colour) |
+                board.getBitboard(PieceType.ROOK, colour) | board.getBitboard(PieceType.QUEEN, colour)) != 0;
+    }
+
+    private static boolean isMateScore(int score) {
+        return Math.abs(score) > MATE - MAX_PLY;
+    }
+
+    /**
+     * Only searches the captures (and promotions) until the position is quiet. This avoids evaluating a position in the
+     * middle of an exchange (ex. after eating a pawn with the queen without seeing that the queen can be eaten back)
+     * <p>
+     * The player to move can also choose to not capture and keep the evaluation of the position (the "stand pat" score),
+     * unless it is in check in which case every move is searched.
+     *
+     * @return the score of the position for the player to move
+     */
+    private int quiescence(int ply, int alpha, int beta, @NotNull Colour colour) {
+        //The principal variation stops where the quiescence search starts
+        principalVariationEnds[ply] = ply;
+
+        if (isOutOfBudget()) return DRAW; //The result is ignored
+
+        if (ply == MAX_PLY) return evaluate(colour);
+
+        boolean inCheck = gameData.isInCheck(colour);
+        int bestScore = -INFINITY;
+
+        if (!inCheck) {
+            bestScore = evaluate(colour);
+            if (bestScore >= beta) return bestScore;
+            if (bestScore > alpha) alpha = bestScore;
+        }
+
+        MovePicker picker = movePickers[ply];
+
+        if (inCheck) picker.initAllMoves(colour, EncodedMove.NONE, ply, false);
+        else picker.initCaptures(colour);
+
+        int numberOfMoves = 0;
+        int move;
+
+        while ((move = picker.next()) != EncodedMove.NONE) {
+            numberOfMoves++;
+
+            gameData.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha, colour.getOpposite());
+            gameData.undoMove();
+
+            if (stopped) return DRAW;
+
+            if (score > bestScore) {
+                bestScore = score;
+
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+
+        if (inCheck && numberOfMoves == 0) return -MATE + ply;
+
+        return bestScore;
+    }
+
+    /**
+     * Counts the node and checks the limits
+     *
+     * @return true if the search should stop
+     */
+    private boolean isOutOfBudget() {
+        if (stopped) return true;
+
+        nodes++;
+
+        if (nodes >= limits.getMaxNodes() || (nodes % CHECK_INTERVAL == 0 && System.nanoTime() > deadline))
+            stopped = true;
+
+        return stopped;
+    }
+
+    /**
+     * Evaluates the position with the network if one is set or else with the handcrafted evaluation. The result is found
+     * in the evaluation cache when the position was already evaluated (the hash includes the player to move, so the
+     * score is cached for the player to move). Package-private for the benchmarks
+     *
+     * @param colour the player to move
+     * @return the score of the position for the player to move
+     */
+    int evaluate(@NotNull Colour colour) {
+        if (evaluationCache == null) return evaluatePosition(colour);
+
+        int score = evaluationCache.probe(gameData.getHash());
+
+        if (score == EvaluationCache.NOT_FOUND) {
+            score = evaluatePosition(colour);
+            evaluationCache.store(gameData.getHash(), score);
+        }
+
+        return score;
+    }
+
+    private int evaluatePosition(@NotNull Colour colour) {
+        if (accumulator != null) return accumulator.evaluate(colour);
+
+        int score = evaluateHandcrafted();
+        return colour == Colour.WHITE ? score : -score;
+    }
+
+    /**
+     * The material and piece-square sums are kept up to date by the game data and the pawn structure is usually found in
+     * the pawn hash table, so evaluating is mostly blending them by phase
+     *
+     * @return the score of the position (positive is good for white)
+     */
+    private int evaluateHandcrafted() {
+        BoardMap board = gameData.getBoard();
+        int pawnEntry = pawnHashTable.probe(gameData.getPawnHash(), board);
+
+        int middlegameScore = gameData.getMiddlegameScore() + pawnHashTable.getMiddlegameScore(pawnEntry);
+        int endgameScore = gameData.getEndgameScore() + pawnHashTable.getEndgameScore(pawnEntry);
+
+        //A passed pawn that is not blocked is worth more (depends on the other pieces so it is not cached)
+        long whiteFront = pawnHashTable.getPassedPawns(pawnEntry, Colour.WHITE) >>> Position.LIMIT;
+        long blackFront = pawnHashTable.getPassedPawns(pawnEntry, Colour.BLACK) << Position.LIMIT;
+        endgameScore += UNBLOCKED_PASSED_PAWN_SCORE * (Bitboard.count(whiteFront & ~board.getOccupancy()) -
+                Bitboard.count(blackFront & ~board.getOccupancy()));
+
+        return PieceSquareTables.taper(middlegameScore, endgameScore, gameData.getPhase());
+    }
+
+    /**
+     * Mate scores are stored relative to the position (not to the root) since the position can be found at another ply
+     */
+    private static int toTranspositionTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score + ply;
+        if (score < -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTranspositionTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score - ply;
+        if (score < -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+}
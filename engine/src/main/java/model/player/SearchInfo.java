@@ -0,0 +1,91 @@
+package model.player;
+
+import model.moves.EncodedMove;
+import model.moves.Move;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of one iteration of the search (see {@link PlayerComputer#setSearchListener(java.util.function.Consumer)}).
+ * Immutable
+ */
+public final class SearchInfo {
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long time;
+
+    /**
+     * The encoded moves of the principal variation (see {@link EncodedMove})
+     */
+    @NotNull
+    private final int[] principalVariation;
+
+    /**
+     * @param principalVariation the encoded moves of the principal variation (not copied)
+     */
+    SearchInfo(int depth, int score, long nodes, long time, @NotNull int[] principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.time = time;
+        this.principalVariation = principalVariation;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the score in hundredths of a pawn for the player to move
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of positions searched since the start of the search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the time since the start of the search in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * The principal variation is the sequence of moves the search expects both players to play. It can be shorter than
+     * the depth when the end of the line was found in the transposition table
+     *
+     * @return the moves of the principal variation, starting with the best move
+     */
+    @NotNull
+    public List<Move> getPrincipalVariation() {
+        List<Move> moves = new ArrayList<>(principalVariation.length);
+
+        for (int move : principalVariation) {
+            moves.add(EncodedMove.toMove(move));
+        }
+
+        return Collections.unmodifiableList(moves);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("depth " + depth + " score " + score + " nodes " + nodes + " time " + time + "ms pv");
+
+        for (int move : principalVariation) {
+            builder.append(' ').append(EncodedMove.toString(move));
+        }
+
+        return builder.toString();
+    }
+}
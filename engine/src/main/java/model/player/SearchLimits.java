@@ -0,0 +1,122 @@
+package model.player;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * When the search should stop. The search is deepened one move at a time until one of the limits is reached
+ * (see {@link Search#findBestMove(model.util.Colour, SearchLimits)}).
+ * <p>
+ * Limits are immutable. Use the static methods to create a limit and the with methods to combine limits.
+ * Example: {@code SearchLimits.depth(8).withMaxTime(2000)} searches up to 8 moves deep but not for more than 2 seconds
+ */
+public final class SearchLimits implements Serializable {
+    /**
+     * Used for a limit that is not set
+     */
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    /**
+     * Searches until the search is stopped (see {@link PlayerComputer#stopSearch()}) or {@link Search#MAX_PLY} moves deep,
+     * the deepest the search can go. An analysis with this limit ends by itself once that depth is searched
+     */
+    public static final SearchLimits INFINITE = new SearchLimits(Search.MAX_PLY, NO_LIMIT, NO_LIMIT);
+
+    private final int maxDepth;
+    private final long maxTime;
+    private final long maxNodes;
+
+    private SearchLimits(int maxDepth, long maxTime, long maxNodes) {
+        if (maxDepth <= 0) throw new IllegalArgumentException("The maximum depth must be positive: " + maxDepth);
+        if (maxTime <= 0) throw new IllegalArgumentException("The maximum time must be positive: " + maxTime);
+        if (maxNodes <= 0) throw new IllegalArgumentException("The maximum number of nodes must be positive: " + maxNodes);
+
+        //The search can't go deeper than its preallocated plies
+        this.maxDepth = Math.min(maxDepth, Search.MAX_PLY);
+        this.maxTime = maxTime;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * @param maxDepth the number of moves to search (at most {@link Search#MAX_PLY}, deeper depths are capped)
+     */
+    @NotNull
+    public static SearchLimits depth(int maxDepth) {
+        return INFINITE.withMaxDepth(maxDepth);
+    }
+
+    /**
+     * @param maxTime the time to search in milliseconds
+     */
+    @NotNull
+    public static SearchLimits time(long maxTime) {
+        return INFINITE.withMaxTime(maxTime);
+    }
+
+    /**
+     * @param maxNodes the number of positions to search
+     */
+    @NotNull
+    public static SearchLimits nodes(long maxNodes) {
+        return INFINITE.withMaxNodes(maxNodes);
+    }
+
+    /**
+     * @param maxDepth the number of moves to search (capped at {@link Search#MAX_PLY})
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SearchLimits withMaxDepth(int maxDepth) {
+        return new SearchLimits(maxDepth, maxTime, maxNodes);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchLimits withMaxTime(long maxTime) {
+        return new SearchLimits(maxDepth, maxTime, maxNodes);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchLimits withMaxNodes(long maxNodes) {
+        return new SearchLimits(maxDepth, maxTime, maxNodes);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the maximum time in milliseconds
+     */
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    boolean hasMaxTime() {
+        return maxTime != NO_LIMIT;
+    }
+
+    /**
+     * @return true if only stopping the search ends it
+     */
+    public boolean isInfinite() {
+        return maxDepth == Search.MAX_PLY && maxTime == NO_LIMIT && maxNodes == NO_LIMIT;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        if (isInfinite()) return "infinite";
+
+        return "depth " + maxDepth +
+                (maxTime == NO_LIMIT ? "" : ", " + maxTime + "ms") +
+                (maxNodes == NO_LIMIT ? "" : ", " + maxNodes + " nodes");
+    }
+}
@@ -0,0 +1,169 @@
+package model.player;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * The selective search techniques used by the {@link Search}. They skip or search less deeply the moves that are unlikely
+ * to change the result, which lets the search go deeper in the same time:
+ * <ul>
+ * <li>null move pruning: if the player to move is still too good after passing, the position is not searched further</li>
+ * <li>late move reductions: the quiet moves ordered late are searched less deeply (and again at full depth if they turn out good)</li>
+ * <li>futility pruning: close to the leaves, the quiet moves are skipped when the position is too bad for them to matter</li>
+ * <li>razoring: close to the leaves, a position that is far below alpha only gets a quiescence search</li>
+ * </ul>
+ * Settings are immutable. Use {@link #DEFAULT} or {@link #NONE} and the with methods to change a setting.
+ * Example: {@code SearchSettings.DEFAULT.withNullMove(false)} uses everything except null move pruning
+ */
+public final class SearchSettings implements Serializable {
+    /**
+     * Every technique with its default tuning
+     */
+    public static final SearchSettings DEFAULT = new SearchSettings(true, 2, true, 3, true, 125, true, 300);
+
+    /**
+     * A full width search (every move is searched to the full depth)
+     */
+    public static final SearchSettings NONE = DEFAULT.withNullMove(false).withLateMoveReductions(false)
+            .withFutilityPruning(false).withRazoring(false);
+
+    private final boolean nullMove;
+    private final int nullMoveReduction;
+    private final boolean lateMoveReductions;
+    private final int lateMoveThreshold;
+    private final boolean futilityPruning;
+    private final int futilityMargin;
+    private final boolean razoring;
+    private final int razorMargin;
+
+    private SearchSettings(boolean nullMove, int nullMoveReduction, boolean lateMoveReductions, int lateMoveThreshold,
+                           boolean futilityPruning, int futilityMargin, boolean razoring, int razorMargin) {
+        if (nullMoveReduction <= 0)
+            throw new IllegalArgumentException("The null move reduction must be positive: " + nullMoveReduction);
+        if (lateMoveThreshold <= 0)
+            throw new IllegalArgumentException("The late move threshold must be positive: " + lateMoveThreshold);
+        if (futilityMargin <= 0) throw new IllegalArgumentException("The futility margin must be positive: " + futilityMargin);
+        if (razorMargin <= 0) throw new IllegalArgumentException("The razor margin must be positive: " + razorMargin);
+
+        this.nullMove = nullMove;
+        this.nullMoveReduction = nullMoveReduction;
+        this.lateMoveReductions = lateMoveReductions;
+        this.lateMoveThreshold = lateMoveThreshold;
+        this.futilityPruning = futilityPruning;
+        this.futilityMargin = futilityMargin;
+        this.razoring = razoring;
+        this.razorMargin = razorMargin;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withNullMove(boolean nullMove) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    /**
+     * @param nullMoveReduction how many moves less deep the position after the null move is searched (one more in deep searches)
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withNullMoveReduction(int nullMoveReduction) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withLateMoveReductions(boolean lateMoveReductions) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    /**
+     * @param lateMoveThreshold the number of moves of a position searched at full depth before the others are reduced
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withLateMoveThreshold(int lateMoveThreshold) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withFutilityPruning(boolean futilityPruning) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    /**
+     * @param futilityMargin how much a quiet move can gain per move of depth left (in hundredths of a pawn)
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withFutilityMargin(int futilityMargin) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withRazoring(boolean razoring) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    /**
+     * @param razorMargin how far below alpha a position must be per move of depth left to only get a quiescence search
+     *                    (in hundredths of a pawn)
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SearchSettings withRazorMargin(int razorMargin) {
+        return new SearchSettings(nullMove, nullMoveReduction, lateMoveReductions, lateMoveThreshold, futilityPruning,
+                futilityMargin, razoring, razorMargin);
+    }
+
+    public boolean hasNullMove() {
+        return nullMove;
+    }
+
+    public int getNullMoveReduction() {
+        return nullMoveReduction;
+    }
+
+    public boolean hasLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public int getLateMoveThreshold() {
+        return lateMoveThreshold;
+    }
+
+    public boolean hasFutilityPruning() {
+        return futilityPruning;
+    }
+
+    public int getFutilityMargin() {
+        return futilityMargin;
+    }
+
+    public boolean hasRazoring() {
+        return razoring;
+    }
+
+    public int getRazorMargin() {
+        return razorMargin;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "null move " + (nullMove ? "R=" + nullMoveReduction : "off") +
+                ", late move reductions " + (lateMoveReductions ? "after " + lateMoveThreshold + " moves" : "off") +
+                ", futility " + (futilityPruning ? futilityMargin : "off") +
+                ", razoring " + (razoring ? razorMargin : "off");
+    }
+}
@@ -0,0 +1,113 @@
+package model.player;
+
+import model.moves.EncodedMove;
+import model.pieces.PieceType;
+import model.util.Bitboard;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import model.util.SlidingAttacks;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Static exchange evaluation (SEE): what a capture wins once every piece attacking the square has eaten back, without
+ * searching. Each player eats with its least valuable attacker and can stop eating when continuing would lose material.
+ * <p>
+ * Sliders behind the pieces that eat (x-rays, ex. a rook behind a rook) join the exchange once the piece in front of them left.
+ * Pins, checks and promotions while eating back are ignored.
+ * <p>
+ * Each search has its own evaluator since it reuses a buffer.
+ */
+class StaticExchange {
+    /**
+     * More than the number of pieces that can attack a square
+     */
+    private static final int MAX_EXCHANGES = 32;
+
+    /**
+     * From the least valuable type to the most valuable one. Kept since values() would copy the array at every capture
+     */
+    private static final PieceType[] TYPES = PieceType.values();
+
+    @NotNull
+    private final BoardMap board;
+
+    /**
+     * gains[i] is the material won by the player that made the i-th capture if the exchange stopped after it
+     * (the king can be "eaten", its value is so high that the exchange never continues to it)
+     */
+    private final int[] gains = new int[MAX_EXCHANGES];
+
+    StaticExchange(@NotNull BoardMap board) {
+        this.board = board;
+    }
+
+    /**
+     * @param move a capture or a promotion (see {@link EncodedMove}) not yet applied to the board
+     * @return the material won by the player making the move in pawns (see {@link PieceType#getValue()}). Negative if the move loses material
+     */
+    int evaluate(int move) {
+        int from = EncodedMove.getFrom(move);
+        int to = EncodedMove.getTo(move);
+        boolean promotion = EncodedMove.getFlag(move) == EncodedMove.PROMOTION;
+
+        PieceType captured = EncodedMove.getCaptured(move);
+        PieceType onSquare = promotion ? EncodedMove.getPromotion(move) : EncodedMove.getPiece(move);
+
+        gains[0] = captured == null ? 0 : captured.getValue();
+        if (promotion) gains[0] += onSquare.getValue() - PieceType.PAWN.getValue();
+
+        long occupancy = board.getOccupancy() & ~Bitboard.of(from);
+        if (EncodedMove.getFlag(move) == EncodedMove.EN_PASSANT)
+            occupancy &= ~Bitboard.of((from / Position.LIMIT) * Position.LIMIT + to % Position.LIMIT);
+
+        long diagonalSliders = getPieces(PieceType.BISHOP) | getPieces(PieceType.QUEEN);
+        long straightSliders = getPieces(PieceType.ROOK) | getPieces(PieceType.QUEEN);
+
+        long attackers = (board.getAttackers(to, Colour.WHITE, occupancy) | board.getAttackers(to, Colour.BLACK, occupancy)) & occupancy;
+        Colour colour = board.getPiece(from).getColour().getOpposite();
+        int exchange = 0;
+
+        while (true) {
+            long ownAttackers = attackers & board.getOccupancy(colour);
+            if (ownAttackers == 0) break;
+
+            //Eat with the least valuable attacker
+            PieceType attacker = null;
+            long attackerSquares = 0;
+
+            for (PieceType type : TYPES) {
+                attackerSquares = ownAttackers & board.getBitboard(type, colour);
+
+                if (attackerSquares != 0) {
+                    attacker = type;
+                    break;
+                }
+            }
+
+            exchange++;
+            gains[exchange] = onSquare.getValue() - gains[exchange - 1];
+
+            occupancy &= ~Bitboard.of(Bitboard.firstSquare(attackerSquares));
+
+            //The sliders behind the piece that left can now reach the square
+            attackers |= (SlidingAttacks.bishopAttacks(to, occupancy) & diagonalSliders) |
+                    (SlidingAttacks.rookAttacks(to, occupancy) & straightSliders);
+            attackers &= occupancy;
+
+            onSquare = attacker;
+            colour = colour.getOpposite();
+        }
+
+        //From the last capture back to the first: each player only eats if it gains more than stopping the exchange
+        for (; exchange > 0; exchange--) {
+            gains[exchange - 1] = -Math.max(-gains[exchange - 1], gains[exchange]);
+        }
+
+        return gains[0];
+    }
+
+    private long getPieces(@NotNull PieceType type) {
+        return board.getBitboard(type, Colour.WHITE) | board.getBitboard(type, Colour.BLACK);
+    }
+}
@@ -0,0 +1,254 @@
+package model.player;
+
+import model.moves.EncodedMove;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the result of searched positions such that a position reached through a different order of moves
+ * (a transposition) does not need to be searched again.
+ * <p>
+ * The table has a fixed power-of-two number of entries (found from a memory budget) indexed by the lowest bits of the
+ * Zobrist hash (see {@link model.GameData#getHash()}). Entries are grouped in buckets of two. When a bucket is full the entry
+ * that is replaced is the one from an older search or else the one with the lowest depth.
+ * <p>
+ * The table is shared by the search threads without any locks. An entry is two longs in a flat array: the data (move,
+ * score, depth, bound and age packed together) and the hash XOR the data. Two threads writing the same entry at once can
+ * leave the key of one with the data of the other (a torn entry). The XOR of the two longs then doesn't give the hash
+ * back, so a torn entry is seen as a miss instead of being trusted.
+ * <p>
+ * A probe returns the packed data of the entry, which is read with the static getters. The data is read once, so another
+ * thread replacing the entry afterwards doesn't change the result.
+ */
+class TranspositionTable {
+    //The type of score stored
+    static final int EXACT = 0;
+    /**
+     * The score is at least the stored score (the search stopped early because the move was too good)
+     */
+    static final int LOWER_BOUND = 1;
+    /**
+     * The score is at most the stored score (no move was better than what the player already had)
+     */
+    static final int UPPER_BOUND = 2;
+
+    /**
+     * Returned by {@link #probe(long)} when the position is not in the table. Stored bounds start at 1 so the data of an
+     * entry is never 0
+     */
+    static final long NOT_FOUND = 0;
+
+    private static final int BUCKET_SIZE = 2;
+
+    /**
+     * Longs used by one entry (key XOR data + data)
+     */
+    private static final int ENTRY_LONGS = 2;
+
+    private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    //Layout of the data of an entry
+    private static final int MOVE_BITS = 23;
+    private static final int SCORE_BITS = 21; //Enough for Search.INFINITY
+    private static final int DEPTH_BITS = 7; //Enough for Search.MAX_PLY
+    private static final int BOUND_BITS = 2;
+    private static final int AGE_BITS = 8;
+
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int AGE_SHIFT = BOUND_SHIFT + BOUND_BITS;
+
+    /**
+     * The entries. Entry i is at index 2i (hash XOR data) and 2i + 1 (data)
+     */
+    private final long[] table;
+
+    /**
+     * Used to find the bucket of a hash (number of buckets - 1)
+     */
+    private final int bucketMask;
+
+    /**
+     * Incremented at the start of every search. Entries from older searches are replaced first
+     */
+    private volatile int age = 0;
+
+    //Counters used to size the table. LongAdders such that the threads don't fight over one counter
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    /**
+     * The number of times a position replaced another position (instead of an empty entry or an older result of itself)
+     */
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * @param megabytes the memory budget of the table. The number of entries is the largest power of two that fits
+     */
+    TranspositionTable(int megabytes) {
+        if (megabytes <= 0) throw new IllegalArgumentException("The size of the table must be positive: " + megabytes);
+
+        long maxEntries = (long) megabytes * BYTES_PER_MEGABYTE / (ENTRY_LONGS * Long.BYTES);
+        int entries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 29));
+
+        table = new long[entries * ENTRY_LONGS];
+        bucketMask = entries / BUCKET_SIZE - 1;
+    }
+
+    /**
+     * Called at the start of each search such that entries of previous searches are replaced first
+     */
+    void newSearch() {
+        age = (age + 1) & ((1 << AGE_BITS) - 1);
+    }
+
+    /**
+     * @return the data of the entry with this hash or {@link #NOT_FOUND}
+     */
+    long probe(long hash) {
+        int bucket = getBucket(hash);
+
+        for (int entry = bucket; entry < bucket + BUCKET_SIZE; entry++) {
+            long data = table[entry * ENTRY_LONGS + 1];
+
+            if (data != NOT_FOUND && (table[entry * ENTRY_LONGS] ^ data) == hash) {
+                hits.increment();
+                return data;
+            }
+        }
+
+        misses.increment();
+        return NOT_FOUND;
+    }
+
+    static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1);
+    }
+
+    /**
+     * @return the type of score (see {@link #EXACT}, {@link #LOWER_BOUND} and {@link #UPPER_BOUND})
+     */
+    static int getBound(long data) {
+        return ((int) (data >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1)) - 1;
+    }
+
+    static int getScore(long data) {
+        //Shift left then right to get the sign back
+        return (int) (data << (Long.SIZE - DEPTH_SHIFT) >> (Long.SIZE - SCORE_BITS));
+    }
+
+    /**
+     * @return the best move found for this position ({@link EncodedMove#NONE} if none)
+     */
+    static int getMove(long data) {
+        return (int) data & ((1 << MOVE_BITS) - 1);
+    }
+
+    private static int getAge(long data) {
+        return (int) (data >>> AGE_SHIFT) & ((1 << AGE_BITS) - 1);
+    }
+
+    /**
+     * Saves the result of a search
+     *
+     * @param depth the depth that was searched from this position
+     * @param bound the type of score (see {@link #EXACT}, {@link #LOWER_BOUND} and {@link #UPPER_BOUND})
+     * @param move  the best move ({@link EncodedMove#NONE} if none)
+     */
+    void store(long hash, int depth, int bound, int score, int move) {
+        int entry = findReplacedEntry(hash, depth);
+        if (entry == -1) return;
+
+        long oldData = table[entry * ENTRY_LONGS + 1];
+        boolean samePosition = (table[entry * ENTRY_LONGS] ^ oldData) == hash;
+
+        if (oldData != NOT_FOUND && !samePosition) collisions.increment();
+
+        //Keep the best move of a previous search of this position if this search did not find one
+        if (move == EncodedMove.NONE && samePosition) move = getMove(oldData);
+
+        long data = move |
+                (long) (score & ((1 << SCORE_BITS) - 1)) << SCORE_SHIFT |
+                (long) depth << DEPTH_SHIFT |
+                (long) (bound + 1) << BOUND_SHIFT | //0 is kept for empty entries
+                (long) age << AGE_SHIFT;
+
+        table[entry * ENTRY_LONGS] = hash ^ data;
+        table[entry * ENTRY_LONGS + 1] = data;
+    }
+
+    /**
+     * @return the entry where the new result should go (-1 if the result should not be saved)
+     */
+    private int findReplacedEntry(long hash, int depth) {
+        int bucket = getBucket(hash);
+        int replaced = bucket;
+
+        for (int entry = bucket; entry < bucket + BUCKET_SIZE; entry++) {
+            long data = table[entry * ENTRY_LONGS + 1];
+
+            if (data == NOT_FOUND) return entry;
+
+            //Same position. Only replace if the new search is as deep or the old result is from a previous search
+            if ((table[entry * ENTRY_LONGS] ^ data) == hash)
+                return depth >= getDepth(data) || getAge(data) != age ? entry : -1;
+
+            //Prefer replacing entries from older searches and then entries with a lower depth
+            if (getReplacementPriority(data) > getReplacementPriority(table[replaced * ENTRY_LONGS + 1])) replaced = entry;
+        }
+
+        return replaced;
+    }
+
+    private int getReplacementPriority(long data) {
+        return (getAge(data) != age ? 1 << DEPTH_BITS : 0) - getDepth(data);
+    }
+
+    private int getBucket(long hash) {
+        return ((int) hash & bucketMask) * BUCKET_SIZE;
+    }
+
+    /**
+     * Removes every entry and resets the counters
+     */
+    void clear() {
+        Arrays.fill(table, 0);
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    /**
+     * @return the number of entries in the table
+     */
+    int getCapacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * @return the number of probes that found the position
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of probes that did not find the position (including torn entries)
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of stores that replaced another position. Many collisions mean the table is too small
+     */
+    long getCollisions() {
+        return collisions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return getCapacity() + " entries, " + getHits() + " hits, " + getMisses() + " misses, " + getCollisions() + " collisions";
+    }
+}
@@ -0,0 +1,112 @@
+package model.util;
+
+import model.pieces.Piece;
+import model.pieces.PieceType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The first layer of a {@link Network} for the position of a game, kept up to date as moves are applied
+ * (see {@link model.GameData#setNetwork(Network)}).
+ * <p>
+ * The hidden neurons of both players are kept for every applied move in a stack: applying a move copies the top of the
+ * stack and adds and removes the features of the pieces that moved, undoing a move only pops the stack.
+ */
+public final class Accumulator {
+    /**
+     * The stack size reserved at first (grows when needed)
+     */
+    private static final int INITIAL_DEPTH = 128;
+
+    @NotNull
+    private final Network network;
+
+    /**
+     * The number of values per move (the hidden neurons of white, then of black)
+     */
+    private final int stride;
+
+    /**
+     * The stack of hidden neurons. The current values are from top * stride to (top + 1) * stride
+     */
+    @NotNull
+    private short[] values;
+
+    private int top = 0;
+
+    /**
+     * @param board the position the accumulator starts from
+     */
+    public Accumulator(@NotNull Network network, @NotNull BoardMap board) {
+        this.network = network;
+        this.stride = 2 * network.getHiddenSize();
+        this.values = new short[INITIAL_DEPTH * stride];
+        refresh(board);
+    }
+
+    @NotNull
+    public Network getNetwork() {
+        return network;
+    }
+
+    /**
+     * Computes the current hidden neurons from every piece on the board
+     */
+    public void refresh(@NotNull BoardMap board) {
+        for (Colour perspective : Colour.values()) {
+            network.setBiases(values, getStart(perspective));
+        }
+
+        for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) add(piece.getType(), piece.getColour(), square);
+        }
+    }
+
+    /**
+     * Saves the current hidden neurons before a move is applied
+     */
+    public void push() {
+        if ((top + 2) * stride > values.length) values = Arrays.copyOf(values, values.length * 2);
+
+        System.arraycopy(values, top * stride, values, (top + 1) * stride, stride);
+        top++;
+    }
+
+    /**
+     * Goes back to the hidden neurons before the last move. If they were not saved (the move was applied before the
+     * accumulator was created) they are computed from the board
+     *
+     * @param board the position after the move was undone
+     */
+    public void pop(@NotNull BoardMap board) {
+        if (top == 0) refresh(board);
+        else top--;
+    }
+
+    //Both players are updated one after the other (not in a loop over the colours, which would create an array per call)
+    public void add(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        network.addFeature(values, getStart(Colour.WHITE), Network.getFeature(type, colour, square, Colour.WHITE));
+        network.addFeature(values, getStart(Colour.BLACK), Network.getFeature(type, colour, square, Colour.BLACK));
+    }
+
+    public void remove(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        network.removeFeature(values, getStart(Colour.WHITE), Network.getFeature(type, colour, square, Colour.WHITE));
+        network.removeFeature(values, getStart(Colour.BLACK), Network.getFeature(type, colour, square, Colour.BLACK));
+    }
+
+    /**
+     * @return the score of the position in hundredths of a pawn for the player to move
+     */
+    public int evaluate(@NotNull Colour colour) {
+        return network.evaluate(values, getStart(colour), getStart(colour.getOpposite()));
+    }
+
+    /**
+     * @return the index of the current hidden neurons of the player
+     */
+    private int getStart(@NotNull Colour perspective) {
+        return top * stride + perspective.ordinal() * network.getHiddenSize();
+    }
+}
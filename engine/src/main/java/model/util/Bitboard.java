@@ -0,0 +1,74 @@
+package model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Helper methods for bitboards. A bitboard is a long where each bit represents a square of the board.
+ * The bit at index {@link Position#getIndex()} is the bit for that position (top-left is bit 0)
+ */
+public final class Bitboard {
+    public static final long EMPTY = 0L;
+
+    private Bitboard() {
+    }
+
+    /**
+     * @return a bitboard with only the bit of this square set
+     */
+    @Contract(pure = true)
+    public static long of(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return true if the bit for this square is set
+     */
+    @Contract(pure = true)
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * @return the square of the lowest set bit (64 if the bitboard is empty)
+     */
+    @Contract(pure = true)
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * @return the bitboard with its lowest set bit removed. Used to loop through the squares of a bitboard
+     */
+    @Contract(pure = true)
+    public static long withoutFirstSquare(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    /**
+     * @return the number of squares in the bitboard
+     */
+    @Contract(pure = true)
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    /**
+     * @return the positions of the squares in the bitboard ordered by index
+     */
+    @NotNull
+    public static Collection<Position> toPositions(long bitboard) {
+        List<Position> positions = new ArrayList<>(count(bitboard));
+
+        while (bitboard != 0) {
+            positions.add(Position.fromIndex(firstSquare(bitboard)));
+            bitboard = withoutFirstSquare(bitboard);
+        }
+
+        return positions;
+    }
+}
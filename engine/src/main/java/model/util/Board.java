@@ -42,7 +42,7 @@ public class Board<T> implements Iterable<T> {
      */
     @Contract(pure = true)
     private int getIndex(Position position) {
-        return Position.LIMIT * position.getRow() + position.getColumn();
+        return position.getIndex();
     }
 
     /**
@@ -1,7 +1,5 @@
 package model.util;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import model.pieces.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -9,20 +7,43 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Represents a mapping of pieces and their position on the board.
- * Uses {@link BiMap} from Google Guava to allow quick access in both directions (find position of piece or find piece at position)
+ * <p>
+ * The pieces are stored in an array indexed by square (to find the piece at a position) and in one bitboard
+ * per piece type and colour (to find the position of a piece and to allow the move generation to work on whole sets of squares).
+ * See {@link Bitboard}.
  */
 //TODO review usage of synchronised
 public class BoardMap implements Serializable {
+    /**
+     * Returned by {@link #getSquare(Piece)} when the piece is not on the board
+     */
+    public static final int NO_SQUARE = -1;
+
+    private static final int NUMBER_OF_TYPES = PieceType.values().length;
+
+    /**
+     * The piece at each square (null if empty). Indexed by {@link Position#getIndex()}
+     */
     @NotNull
-    private final BiMap<Position, Piece> board;
+    private final Piece[] squares = new Piece[Position.LIMIT * Position.LIMIT];
 
-    public BoardMap() {
-        this.board = HashBiMap.create(32);
-    }
+    /**
+     * One bitboard for each piece type and colour. See {@link #getBitboardIndex(PieceType, Colour)}
+     */
+    @NotNull
+    private final long[] pieces = new long[NUMBER_OF_TYPES * Colour.values().length];
+
+    /**
+     * One bitboard for each colour with all the squares occupied by that colour
+     */
+    @NotNull
+    private final long[] occupancy = new long[Colour.values().length];
 
     /**
      * @return a new board map with the initial (starting) layout of pieces
@@ -70,14 +91,116 @@ public class BoardMap implements Serializable {
     }
 
 
+    /**
+     * @return the piece at the position or null if there is no piece (or if the position is not on the board)
+     */
+    @Nullable
+    public Piece getPiece(@NotNull Position position) {
+        if (!position.isValid()) return null;
+        return squares[position.getIndex()];
+    }
+
+    /**
+     * @param square the index of the square (see {@link Position#getIndex()})
+     */
     @Nullable
-    public Piece getPiece(Position position) {
-        return board.get(position);
+    public Piece getPiece(int square) {
+        return squares[square];
     }
 
     @Nullable
     public Position getPosition(@NotNull Piece piece) {
-        return board.inverse().get(piece);
+        int square = getSquare(piece);
+        return square == NO_SQUARE ? null : Position.fromIndex(square);
+    }
+
+    /**
+     * Only scans the squares of the piece's bitboard (the pieces of the same type and colour)
+     *
+     * @return the index of the square of the piece or {@link #NO_SQUARE} if the piece is not on the board
+     */
+    public int getSquare(@NotNull Piece piece) {
+        long candidates = pieces[getBitboardIndex(piece.getType(), piece.getColour())];
+
+        while (candidates != 0) {
+            int square = Bitboard.firstSquare(candidates);
+            if (squares[square] == piece) return square;
+            candidates = Bitboard.withoutFirstSquare(candidates);
+        }
+
+        return NO_SQUARE;
+    }
+
+    /**
+     * @return the bitboard of the squares occupied by pieces of this type and colour
+     */
+    public long getBitboard(@NotNull PieceType type, @NotNull Colour colour) {
+        return pieces[getBitboardIndex(type, colour)];
+    }
+
+    /**
+     * @return the bitboard of the squares occupied by pieces of this colour
+     */
+    public long getOccupancy(@NotNull Colour colour) {
+        return occupancy[colour.ordinal()];
+    }
+
+    /**
+     * @return the bitboard of the squares occupied by any piece
+     */
+    public long getOccupancy() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * Looks outward from the square with each attack pattern (a "super-piece") instead of asking every piece what it attacks.
+     * Stops at the first attacker found
+     *
+     * @param byWho the colour of the attackers
+     * @return true if a piece of this colour attacks the square
+     */
+    public boolean isSquareAttacked(int square, @NotNull Colour byWho) {
+        return isSquareAttacked(square, byWho, getOccupancy());
+    }
+
+    /**
+     * @param occupancy the pieces blocking the sliders (ex. without the king to check the squares the king can move to)
+     * @see #isSquareAttacked(int, Colour)
+     */
+    public boolean isSquareAttacked(int square, @NotNull Colour byWho, long occupancy) {
+        int offset = byWho.ordinal() * NUMBER_OF_TYPES;
+
+        //Cheapest patterns first
+        //A pawn attacks the square if a pawn of the other colour on the square would attack the pawn
+        if ((LeaperAttacks.pawnAttacks(byWho.getOpposite(), square) & pieces[offset + PieceType.PAWN.ordinal()]) != 0)
+            return true;
+        if ((LeaperAttacks.knightAttacks(square) & pieces[offset + PieceType.KNIGHT.ordinal()]) != 0) return true;
+        if ((LeaperAttacks.kingAttacks(square) & pieces[offset + PieceType.KING.ordinal()]) != 0) return true;
+
+        long queens = pieces[offset + PieceType.QUEEN.ordinal()];
+
+        long diagonalSliders = pieces[offset + PieceType.BISHOP.ordinal()] | queens;
+        if (diagonalSliders != 0 && (SlidingAttacks.bishopAttacks(square, occupancy) & diagonalSliders) != 0)
+            return true;
+
+        long straightSliders = pieces[offset + PieceType.ROOK.ordinal()] | queens;
+        return straightSliders != 0 && (SlidingAttacks.rookAttacks(square, occupancy) & straightSliders) != 0;
+    }
+
+    /**
+     * @param byWho     the colour of the attackers
+     * @param occupancy the pieces blocking the sliders (usually {@link #getOccupancy()})
+     * @return the bitboard of all the pieces of this colour that attack the square
+     */
+    public long getAttackers(int square, @NotNull Colour byWho, long occupancy) {
+        int offset = byWho.ordinal() * NUMBER_OF_TYPES;
+        long queens = pieces[offset + PieceType.QUEEN.ordinal()];
+
+        return (LeaperAttacks.pawnAttacks(byWho.getOpposite(), square) & pieces[offset + PieceType.PAWN.ordinal()])
+                | (LeaperAttacks.knightAttacks(square) & pieces[offset + PieceType.KNIGHT.ordinal()])
+                | (LeaperAttacks.kingAttacks(square) & pieces[offset + PieceType.KING.ordinal()])
+                | (SlidingAttacks.bishopAttacks(square, occupancy) & (pieces[offset + PieceType.BISHOP.ordinal()] | queens))
+                | (SlidingAttacks.rookAttacks(square, occupancy) & (pieces[offset + PieceType.ROOK.ordinal()] | queens));
     }
 
     /**
@@ -85,33 +208,115 @@ public class BoardMap implements Serializable {
      */
     @Nullable
     public Piece add(@NotNull Position position, @NotNull Piece piece) {
-        return board.put(position, piece);
+        return put(position.getIndex(), piece);
     }
 
     /**
-     * @param piece the piece that was at the destination before the piece was moved
+     * Moves a piece to the destination. If the piece is already on the board it is removed from its previous square.
+     * The piece that was at the destination (if any) is replaced
      */
     public synchronized void movePiece(@NotNull Position destination, @NotNull Piece piece) {
-        board.forcePut(destination, piece);
+        int square = getSquare(piece);
+        if (square != NO_SQUARE) clear(square);
+
+        put(destination.getIndex(), piece);
     }
 
     @NotNull
     public synchronized Piece removePiece(@NotNull Position position) {
-        Piece remove = board.remove(position);
+        Piece remove = clear(position.getIndex());
         if (remove == null) throw new IllegalArgumentException("No piece at: " + position);
         return remove;
     }
 
     @NotNull
     public synchronized Position removePiece(@NotNull Piece piece) {
-        Position position = board.inverse().remove(piece);
-        if (position == null) throw new IllegalArgumentException("Piece not on the board: piece:" + piece);
-        return position;
+        int square = getSquare(piece);
+        if (square == NO_SQUARE) throw new IllegalArgumentException("Piece not on the board: piece:" + piece);
+        clear(square);
+        return Position.fromIndex(square);
+    }
+
+    /**
+     * @param square the index of the square (see {@link Position#getIndex()})
+     * @return the piece that was at this square before the new piece was added
+     */
+    @Nullable
+    public Piece add(int square, @NotNull Piece piece) {
+        return put(square, piece);
+    }
+
+    /**
+     * @return the removed piece or null if the square was empty
+     */
+    @Nullable
+    public Piece removePiece(int square) {
+        return clear(square);
     }
 
+    /**
+     * Moves the piece at square from to square to
+     *
+     * @return the piece that was replaced at the destination (null if it was empty)
+     */
+    @Nullable
+    public Piece movePiece(int from, int to) {
+        return put(to, clear(from));
+    }
+
+    /**
+     * @return a snapshot of the pieces on the board, ordered by square
+     */
     @NotNull
-    public Set<Piece> iteratePieces() {
-        return board.values();
+    public Collection<Piece> iteratePieces() {
+        long remaining = getOccupancy();
+        List<Piece> result = new ArrayList<>(Bitboard.count(remaining));
+
+        while (remaining != 0) {
+            result.add(squares[Bitboard.firstSquare(remaining)]);
+            remaining = Bitboard.withoutFirstSquare(remaining);
+        }
+
+        return result;
+    }
+
+    /**
+     * Places the piece at the square and updates the bitboards
+     *
+     * @return the piece that was replaced
+     */
+    @Nullable
+    private Piece put(int square, @NotNull Piece piece) {
+        Piece previous = clear(square);
+
+        long bit = Bitboard.of(square);
+        squares[square] = piece;
+        pieces[getBitboardIndex(piece.getType(), piece.getColour())] |= bit;
+        occupancy[piece.getColour().ordinal()] |= bit;
+
+        return previous;
+    }
+
+    /**
+     * Removes the piece at the square (if any) and updates the bitboards
+     *
+     * @return the removed piece
+     */
+    @Nullable
+    private Piece clear(int square) {
+        Piece previous = squares[square];
+        if (previous == null) return null;
+
+        long mask = ~Bitboard.of(square);
+        squares[square] = null;
+        pieces[getBitboardIndex(previous.getType(), previous.getColour())] &= mask;
+        occupancy[previous.getColour().ordinal()] &= mask;
+
+        return previous;
+    }
+
+    private static int getBitboardIndex(@NotNull PieceType type, @NotNull Colour colour) {
+        return colour.ordinal() * NUMBER_OF_TYPES + type.ordinal();
     }
 
     @NotNull
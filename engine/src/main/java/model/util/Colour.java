@@ -5,5 +5,12 @@ package model.util;
  */
 public enum Colour {
     WHITE,
-    BLACK
+    BLACK;
+
+    /**
+     * @return the other colour (used to switch turns)
+     */
+    public Colour getOpposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
 }
@@ -0,0 +1,70 @@
+package model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Precomputed attack tables for the pieces that jump to a fixed set of squares (knight, king and the pawn's captures).
+ * One bitboard per square, filled once when the class is loaded.
+ */
+public final class LeaperAttacks {
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+
+    private static final long[] KNIGHT = createTable(new int[][]{
+            {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}, {1, 2}, {2, 1}, {2, -1}, {1, -2}
+    });
+
+    private static final long[] KING = createTable(new int[][]{
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    });
+
+    /**
+     * White pawns move up (towards row 0), black pawns move down
+     */
+    private static final long[] WHITE_PAWN = createTable(new int[][]{{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN = createTable(new int[][]{{1, -1}, {1, 1}});
+
+    private LeaperAttacks() {
+    }
+
+    @Contract(pure = true)
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    @Contract(pure = true)
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param colour the colour of the pawn
+     * @return the squares a pawn of this colour attacks diagonally from this square
+     */
+    @Contract(pure = true)
+    public static long pawnAttacks(@NotNull Colour colour, int square) {
+        return colour == Colour.WHITE ? WHITE_PAWN[square] : BLACK_PAWN[square];
+    }
+
+    /**
+     * @param offsets the row and column shifts of the piece
+     * @return a table with the bitboard of the valid destinations from each square
+     */
+    @NotNull
+    private static long[] createTable(@NotNull int[][] offsets) {
+        long[] table = new long[NUMBER_OF_SQUARES];
+
+        for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+            for (int[] offset : offsets) {
+                int row = square / Position.LIMIT + offset[0];
+                int column = square % Position.LIMIT + offset[1];
+
+                if (0 <= row && row < Position.LIMIT && 0 <= column && column < Position.LIMIT) {
+                    table[square] |= Bitboard.of(row * Position.LIMIT + column);
+                }
+            }
+        }
+
+        return table;
+    }
+}
@@ -0,0 +1,274 @@
+package model.util;
+
+import model.pieces.PieceType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A small quantized neural network that evaluates positions (an efficiently updatable network). Immutable, so it can be
+ * shared by the threads and the searches.
+ * <p>
+ * The input is one feature per piece type, colour and square (seen from each player, see {@link #getFeature(PieceType, Colour, int, Colour)}).
+ * The first layer is the sum of the weights of the features on the board and is kept up to date move by move in an
+ * {@link Accumulator}: a move only adds and removes a few features. The hidden neurons of the player to move and of the
+ * other player are clipped to [0, {@link #ACTIVATION_LIMIT}] and summed with the output weights to give the score.
+ * <p>
+ * The first layer is in 16 bit integers and the output weights in 8 bit integers. The weights are checked such that the
+ * hidden neurons can't overflow 16 bits with the pieces of a board (see {@link #MAX_PIECES}). The loops over the hidden neurons are
+ * simple loops over arrays (no objects, no branches) such that the JIT can vectorize them: adding and removing features
+ * is vectorized by the HotSpot JIT, the sum of the output layer depends on the JIT version.
+ * <p>
+ * The weights are loaded from a binary file (little endian): the magic number, the version and the number of hidden
+ * neurons (ints), then the feature weights (feature after feature) and the biases of the hidden neurons (shorts), the
+ * output weights of the player to move then of the other player (bytes) and the output bias (int).
+ */
+public final class Network {
+    /**
+     * The number of input features (piece type, colour and square)
+     */
+    public static final int INPUTS = Colour.values().length * PieceType.values().length * Position.LIMIT * Position.LIMIT;
+
+    /**
+     * The hidden neurons are clipped to [0, ACTIVATION_LIMIT]. The first layer weights are scaled by ACTIVATION_LIMIT
+     */
+    public static final int ACTIVATION_LIMIT = 255;
+
+    /**
+     * The output weights are scaled by OUTPUT_WEIGHT_SCALE (and the output bias by ACTIVATION_LIMIT * OUTPUT_WEIGHT_SCALE)
+     */
+    public static final int OUTPUT_WEIGHT_SCALE = 64;
+
+    /**
+     * The output of the network times SCALE is the score in hundredths of a pawn
+     */
+    private static final int SCALE = 400;
+
+    /**
+     * The most features on the board at once: a board has at most 32 pieces, and a move removes a piece before adding it
+     * back (an eaten piece is removed first)
+     */
+    static final int MAX_PIECES = 32;
+
+    private static final int MAGIC = 0x4E4E5545; //"NNUE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+    private static final int NUMBER_OF_TYPES = PieceType.values().length;
+
+    private final int hiddenSize;
+
+    /**
+     * The weights of feature f are at index f * hiddenSize to (f + 1) * hiddenSize
+     */
+    @NotNull
+    private final short[] featureWeights;
+
+    @NotNull
+    private final short[] biases;
+
+    /**
+     * The weights of the hidden neurons of the player to move, then of the other player
+     */
+    @NotNull
+    private final byte[] outputWeights;
+
+    private final int outputBias;
+
+    /**
+     * @param featureWeights {@link #INPUTS} * hiddenSize weights, feature after feature (not copied)
+     * @param biases         the biases of the hidden neurons (not copied)
+     * @param outputWeights  2 * hiddenSize weights, the player to move first (not copied)
+     * @throws IllegalArgumentException if the weights don't match the number of hidden neurons or a hidden neuron could
+     *                                  overflow 16 bits (see {@link #checkRange(int, short[], short[])})
+     */
+    public Network(int hiddenSize, @NotNull short[] featureWeights, @NotNull short[] biases, @NotNull byte[] outputWeights, int outputBias) {
+        if (hiddenSize <= 0) throw new IllegalArgumentException("The number of hidden neurons must be positive: " + hiddenSize);
+        if (featureWeights.length != INPUTS * hiddenSize || biases.length != hiddenSize || outputWeights.length != 2 * hiddenSize)
+            throw new IllegalArgumentException("The weights don't match " + hiddenSize + " hidden neurons");
+
+        checkRange(hiddenSize, featureWeights, biases);
+
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.biases = biases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Loads the weights from a file through a memory-mapped buffer
+     *
+     * @throws IOException if the file can't be read, is not a network file or has weights that could overflow
+     */
+    @NotNull
+    public static Network load(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a network file: " + path);
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a network file: " + path);
+
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported network version " + version + ": " + path);
+
+            int hiddenSize = buffer.getInt();
+            if (hiddenSize <= 0 || size != getFileSize(hiddenSize))
+                throw new IOException("The size of the file does not match " + hiddenSize + " hidden neurons: " + path);
+
+            short[] featureWeights = readShorts(buffer, INPUTS * hiddenSize);
+            short[] biases = readShorts(buffer, hiddenSize);
+            byte[] outputWeights = new byte[2 * hiddenSize];
+            buffer.get(outputWeights);
+
+            try {
+                return new Network(hiddenSize, featureWeights, biases, outputWeights, buffer.getInt());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage() + ": " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the weights in the format read by {@link #load(Path)}
+     */
+    public void write(@NotNull Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) getFileSize(hiddenSize)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(hiddenSize);
+
+        for (short weight : featureWeights) {
+            buffer.putShort(weight);
+        }
+
+        for (short bias : biases) {
+            buffer.putShort(bias);
+        }
+
+        buffer.put(outputWeights).putInt(outputBias);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * A hidden neuron is its bias plus the weights of the features on the board. Its largest possible value is the bias
+     * plus the {@link #MAX_PIECES} largest weights of the neuron (in absolute value), which must fit in 16 bits: the
+     * accumulator would silently wrap around otherwise
+     *
+     * @throws IllegalArgumentException if a hidden neuron could overflow
+     */
+    private static void checkRange(int hiddenSize, @NotNull short[] featureWeights, @NotNull short[] biases) {
+        int[] magnitudes = new int[INPUTS];
+
+        for (int neuron = 0; neuron < hiddenSize; neuron++) {
+            for (int feature = 0; feature < INPUTS; feature++) {
+                magnitudes[feature] = Math.abs(featureWeights[feature * hiddenSize + neuron]);
+            }
+
+            Arrays.sort(magnitudes);
+            int bound = Math.abs(biases[neuron]);
+
+            for (int i = INPUTS - MAX_PIECES; i < INPUTS; i++) {
+                bound += magnitudes[i];
+            }
+
+            if (bound > Short.MAX_VALUE)
+                throw new IllegalArgumentException("Hidden neuron " + neuron + " could reach " + bound + ", more than 16 bits can hold");
+        }
+    }
+
+    private static long getFileSize(long hiddenSize) {
+        return HEADER_BYTES + (INPUTS + 1) * hiddenSize * Short.BYTES + 2 * hiddenSize + Integer.BYTES;
+    }
+
+    @NotNull
+    private static short[] readShorts(@NotNull ByteBuffer buffer, int count) {
+        short[] values = new short[count];
+        buffer.asShortBuffer().get(values);
+        buffer.position(buffer.position() + count * Short.BYTES);
+        return values;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    /**
+     * Each player sees the board from its side: for black the colours are swapped and the board is flipped vertically,
+     * such that the same weights are used for both players
+     *
+     * @param perspective the player that sees the piece
+     * @return the index of the feature of the piece
+     */
+    static int getFeature(@NotNull PieceType type, @NotNull Colour colour, int square, @NotNull Colour perspective) {
+        if (perspective == Colour.BLACK) {
+            colour = colour.getOpposite();
+            square ^= NUMBER_OF_SQUARES - Position.LIMIT;
+        }
+
+        return (colour.ordinal() * NUMBER_OF_TYPES + type.ordinal()) * NUMBER_OF_SQUARES + square;
+    }
+
+    /**
+     * Sets the hidden neurons of one player to their biases (the first layer without any feature)
+     */
+    void setBiases(@NotNull short[] values, int start) {
+        System.arraycopy(biases, 0, values, start, hiddenSize);
+    }
+
+    /**
+     * Adds the weights of the feature to the hidden neurons of one player (from values[start])
+     */
+    void addFeature(@NotNull short[] values, int start, int feature) {
+        int weights = feature * hiddenSize;
+
+        for (int i = 0; i < hiddenSize; i++) {
+            values[start + i] += featureWeights[weights + i];
+        }
+    }
+
+    void removeFeature(@NotNull short[] values, int start, int feature) {
+        int weights = feature * hiddenSize;
+
+        for (int i = 0; i < hiddenSize; i++) {
+            values[start + i] -= featureWeights[weights + i];
+        }
+    }
+
+    /**
+     * @param ownStart   the index of the hidden neurons of the player to move
+     * @param otherStart the index of the hidden neurons of the other player
+     * @return the score in hundredths of a pawn for the player to move
+     */
+    int evaluate(@NotNull short[] values, int ownStart, int otherStart) {
+        int sum = outputBias + activate(values, ownStart, 0) + activate(values, otherStart, hiddenSize);
+        return (int) ((long) sum * SCALE / (ACTIVATION_LIMIT * OUTPUT_WEIGHT_SCALE));
+    }
+
+    /**
+     * @return the clipped hidden neurons (from values[start]) times their output weights (from outputWeights[weightStart])
+     */
+    private int activate(@NotNull short[] values, int start, int weightStart) {
+        int sum = 0;
+
+        for (int i = 0; i < hiddenSize; i++) {
+            int activation = Math.min(Math.max(values[start + i], 0), ACTIVATION_LIMIT);
+            sum += activation * outputWeights[weightStart + i];
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,191 @@
+package model.util;
+
+import model.pieces.PieceType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The value of each piece on each square, in hundredths of a pawn: its material plus a bonus or penalty for the square
+ * (ex. knights are better in the center, the king is safer behind its pawns).
+ * <p>
+ * There are two values per piece and square: one for the middlegame and one for the endgame (where the king should move
+ * to the center and the pawns should advance). The evaluation blends them by the phase of the game: the value of the pieces
+ * other than pawns and kings left on the board (see {@link #phase(PieceType)}).
+ * <p>
+ * The values are positive for white and negative for black such that the score of a position is the sum of the values
+ * of its pieces (see {@link model.GameData#getMiddlegameScore()}). The sum can then be updated when a move is applied by
+ * only adding and subtracting the values that changed.
+ */
+public final class PieceSquareTables {
+    /**
+     * The phase at the start of the game (and of any position with more pieces)
+     */
+    public static final int MAX_PHASE = 24;
+
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+    private static final int NUMBER_OF_TYPES = PieceType.values().length;
+
+    /**
+     * The material in the middlegame and the endgame by piece type. The king is on the board for both players so it is not counted
+     */
+    private static final int[] MIDDLEGAME_MATERIAL = {100, 300, 300, 500, 800, 0};
+    private static final int[] ENDGAME_MATERIAL = {120, 290, 310, 520, 850, 0};
+
+    private static final int[] PHASES = {0, 1, 1, 2, 4, 0};
+
+    //The tables are for white, the first row is the top of the board (black's side). Black uses them upside down
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    /**
+     * The signed value of each type, colour and square (material included)
+     */
+    private static final int[] MIDDLEGAME = createValues(MIDDLEGAME_MATERIAL, PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING);
+    private static final int[] ENDGAME = createValues(ENDGAME_MATERIAL, PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME);
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return the value of the piece on the square in the middlegame (negative for black)
+     */
+    @Contract(pure = true)
+    public static int middlegame(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        return MIDDLEGAME[getIndex(type, colour, square)];
+    }
+
+    /**
+     * @return the value of the piece on the square in the endgame (negative for black)
+     */
+    @Contract(pure = true)
+    public static int endgame(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        return ENDGAME[getIndex(type, colour, square)];
+    }
+
+    /**
+     * @return how much the piece counts towards the middlegame (the phase is {@link #MAX_PHASE} at the start of the game)
+     */
+    @Contract(pure = true)
+    public static int phase(@NotNull PieceType type) {
+        return PHASES[type.ordinal()];
+    }
+
+    /**
+     * @param phase the sum of {@link #phase(PieceType)} of the pieces on the board
+     * @return the score blended between the middlegame and the endgame scores
+     */
+    @Contract(pure = true)
+    public static int taper(int middlegameScore, int endgameScore, int phase) {
+        int middlegameWeight = Math.min(phase, MAX_PHASE);
+        return (middlegameScore * middlegameWeight + endgameScore * (MAX_PHASE - middlegameWeight)) / MAX_PHASE;
+    }
+
+    private static int getIndex(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        return (colour.ordinal() * NUMBER_OF_TYPES + type.ordinal()) * NUMBER_OF_SQUARES + square;
+    }
+
+    /**
+     * @param tables one table per piece type (in the order of {@link PieceType})
+     */
+    @NotNull
+    private static int[] createValues(@NotNull int[] material, @NotNull int[]... tables) {
+        int[] values = new int[Colour.values().length * NUMBER_OF_TYPES * NUMBER_OF_SQUARES];
+
+        for (PieceType type : PieceType.values()) {
+            for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+                int value = material[type.ordinal()] + tables[type.ordinal()][square];
+
+                values[getIndex(type, Colour.WHITE, square)] = value;
+                //The square of black's pieces is flipped vertically
+                values[getIndex(type, Colour.BLACK, square ^ (NUMBER_OF_SQUARES - Position.LIMIT))] = -value;
+            }
+        }
+
+        return values;
+    }
+}
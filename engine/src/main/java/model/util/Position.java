@@ -12,6 +12,17 @@ import java.util.Objects;
 public class Position implements Serializable {
     public static final int LIMIT = 8;
 
+    /**
+     * One shared instance for each square, indexed by {@link #getIndex()}. Avoids allocating positions in hot loops
+     */
+    private static final Position[] POSITIONS = new Position[LIMIT * LIMIT];
+
+    static {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            POSITIONS[i] = new Position(i / LIMIT, i % LIMIT);
+        }
+    }
+
     private final int row;
     private final int column;
 
@@ -28,6 +39,22 @@ public class Position implements Serializable {
         return row;
     }
 
+    /**
+     * @return the index of the square (row * LIMIT + column). Only defined for valid positions
+     */
+    public int getIndex() {
+        return LIMIT * row + column;
+    }
+
+    /**
+     * @param index the index of the square (see {@link #getIndex()})
+     * @return the shared position instance for this square
+     */
+    @NotNull
+    public static Position fromIndex(int index) {
+        return POSITIONS[index];
+    }
+
     /**
      * @param offset how much to shift this position
      * @return a new position that is shifted from this
@@ -0,0 +1,238 @@
+package model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Precomputed attack tables for the sliding pieces (rook, bishop and queen) using magic bitboards.
+ * <p>
+ * For each square only the squares that can block a ray matter (the relevant occupancy mask). Multiplying the
+ * relevant occupancy by a "magic" number and keeping the top bits gives a perfect index into a table of attack sets.
+ * The magic numbers below were found with a random search (for the square indexes of {@link Position#getIndex()}).
+ * The tables are filled once, when the class is loaded.
+ */
+public final class SlidingAttacks {
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+
+    static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0400800040008021L, 0x0400400020005000L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+            0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x2008110084402202L, 0x90806005090010C1L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0020428400408200L, 0x2008010104210004L, 0x02D0009200480190L, 0x0018158B00010100L,
+            0x02C4042132048008L, 0x020082202000C221L, 0x4000421050080009L, 0x0210140202022020L,
+            0x00C0101410042248L, 0x0405204800D48080L, 0x3800C89200420002L, 0x180844124A020440L,
+            0x04403410A8002221L, 0x4040209004200400L, 0x084004020202A204L, 0x3010002104022000L,
+            0x00200240A9110900L, 0x2302800404080210L, 0x0204188800240010L, 0x8048000C01401200L,
+            0x120C001A11040900L, 0x0000401200500440L, 0x00004040840420A0L, 0x0020930822880804L,
+            0x4044401090900161L, 0x0034100015210804L, 0x8004100009010120L, 0x48C8080000820500L,
+            0x0080848004002000L, 0x0801004012005044L, 0x000080902C040400L, 0x0004009005004100L,
+            0x0B103010048A0200L, 0x8004100203181A00L, 0x0800140200100080L, 0x8401010800910040L,
+            0x0840010011290040L, 0x40100214202E1000L, 0x0842040040010840L, 0x0028010040010860L,
+            0x00080202A2051000L, 0x4200841008084204L, 0x0021120110000D02L, 0x48C1004208000084L,
+            0x0010088100414400L, 0x0021101000420580L, 0x0010040558401410L, 0x200C0C82A1050205L,
+            0x0011108820088000L, 0x0001011910120402L, 0x1580008608091248L, 0x8010018020880C02L,
+            0x20A1101032088480L, 0x0080100408082800L, 0x28100401140401C0L, 0x8002102200930012L,
+            0x4001040082080200L, 0x082200A498081808L, 0x000508610080D003L, 0x0052020044842402L,
+            0x4800A00140C84840L, 0x5000000848080820L, 0x0101086004240040L, 0x0028280808005014L
+    };
+
+    private static final Table ROOK = new Table(ROOK_DIRECTIONS, ROOK_MAGICS);
+    private static final Table BISHOP = new Table(BISHOP_DIRECTIONS, BISHOP_MAGICS);
+
+    /**
+     * For two squares on the same row, column or diagonal: the squares strictly between them. Empty otherwise
+     */
+    private static final long[][] BETWEEN = new long[NUMBER_OF_SQUARES][NUMBER_OF_SQUARES];
+
+    /**
+     * For two squares on the same row, column or diagonal: the whole line (edge to edge) through them. Empty otherwise
+     */
+    private static final long[][] LINE = new long[NUMBER_OF_SQUARES][NUMBER_OF_SQUARES];
+
+    static {
+        for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+            for (int[][] directions : new int[][][]{ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+                for (int[] direction : directions) {
+                    //The full line is the ray in this direction, the ray in the opposite direction and the square itself
+                    long line = Bitboard.of(square)
+                            | slowAttacks(new int[][]{direction}, square, Bitboard.EMPTY)
+                            | slowAttacks(new int[][]{{-direction[0], -direction[1]}}, square, Bitboard.EMPTY);
+
+                    long between = Bitboard.EMPTY;
+                    int row = square / Position.LIMIT + direction[0];
+                    int column = square % Position.LIMIT + direction[1];
+
+                    while (0 <= row && row < Position.LIMIT && 0 <= column && column < Position.LIMIT) {
+                        int target = row * Position.LIMIT + column;
+                        BETWEEN[square][target] = between;
+                        LINE[square][target] = line;
+
+                        between |= Bitboard.of(target);
+                        row += direction[0];
+                        column += direction[1];
+                    }
+                }
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * @param square    the square of the rook
+     * @param occupancy the bitboard of all the pieces on the board
+     * @return the bitboard of the squares attacked by a rook (including the first blocker in each direction)
+     */
+    @Contract(pure = true)
+    public static long rookAttacks(int square, long occupancy) {
+        return ROOK.getAttacks(square, occupancy);
+    }
+
+    /**
+     * @see #rookAttacks(int, long)
+     */
+    @Contract(pure = true)
+    public static long bishopAttacks(int square, long occupancy) {
+        return BISHOP.getAttacks(square, occupancy);
+    }
+
+    /**
+     * @see #rookAttacks(int, long)
+     */
+    @Contract(pure = true)
+    public static long queenAttacks(int square, long occupancy) {
+        return ROOK.getAttacks(square, occupancy) | BISHOP.getAttacks(square, occupancy);
+    }
+
+    /**
+     * @return the squares strictly between the two squares if they are on the same line (empty otherwise)
+     */
+    @Contract(pure = true)
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the whole line (edge to edge) through both squares if they are on the same line (empty otherwise)
+     */
+    @Contract(pure = true)
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Walks each ray square by square. Only used to build the tables
+     */
+    static long slowAttacks(@NotNull int[][] directions, int square, long occupancy) {
+        long attacks = 0;
+
+        for (int[] direction : directions) {
+            int row = square / Position.LIMIT + direction[0];
+            int column = square % Position.LIMIT + direction[1];
+
+            while (0 <= row && row < Position.LIMIT && 0 <= column && column < Position.LIMIT) {
+                int target = row * Position.LIMIT + column;
+                attacks |= Bitboard.of(target);
+
+                //Cannot go past a piece since it is blocking the line
+                if (Bitboard.contains(occupancy, target)) break;
+
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * The squares that can block a ray (the ray without its last square since a piece there blocks nothing)
+     */
+    private static long relevantMask(@NotNull int[][] directions, int square) {
+        long mask = 0;
+
+        for (int[] direction : directions) {
+            int row = square / Position.LIMIT + direction[0];
+            int column = square % Position.LIMIT + direction[1];
+
+            //Stop one square before the edge
+            while (0 <= row + direction[0] && row + direction[0] < Position.LIMIT &&
+                    0 <= column + direction[1] && column + direction[1] < Position.LIMIT) {
+                mask |= Bitboard.of(row * Position.LIMIT + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * The masks, magic numbers, shifts and attack sets for one type of slider
+     */
+    private static final class Table {
+        private final long[] masks = new long[NUMBER_OF_SQUARES];
+        @NotNull
+        private final long[] magics;
+        private final int[] shifts = new int[NUMBER_OF_SQUARES];
+        private final long[][] attacks = new long[NUMBER_OF_SQUARES][];
+
+        Table(@NotNull int[][] directions, @NotNull long[] magics) {
+            this.magics = magics;
+
+            for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+                initSquare(directions, square);
+            }
+        }
+
+        long getAttacks(int square, long occupancy) {
+            return attacks[square][(int) (((occupancy & masks[square]) * magics[square]) >>> shifts[square])];
+        }
+
+        private void initSquare(@NotNull int[][] directions, int square) {
+            long mask = relevantMask(directions, square);
+            int shift = 64 - Bitboard.count(mask);
+            long[] table = new long[1 << (64 - shift)];
+            boolean[] filled = new boolean[table.length];
+
+            //Enumerate every subset of the mask (carry-rippler trick) and store its attack set
+            long subset = 0;
+
+            do {
+                int index = (int) ((subset * magics[square]) >>> shift);
+                long reference = slowAttacks(directions, square, subset);
+
+                if (filled[index] && table[index] != reference)
+                    throw new IllegalStateException("Invalid magic number for square: " + square);
+
+                filled[index] = true;
+                table[index] = reference;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            masks[square] = mask;
+            shifts[square] = shift;
+            attacks[square] = table;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package model.util;
+
+import model.pieces.PieceType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * The random keys used to hash a position (Zobrist hashing).
+ * <p>
+ * The hash of a position is the XOR of the key of every piece on its square, of the castling rights, of the en passant
+ * column and of the side to move. Since XOR is its own inverse the hash can be updated when a move is applied by
+ * XOR-ing only the keys that changed.
+ */
+public final class Zobrist {
+    /**
+     * Fixed seed such that the hashes are the same every time the program runs (and can be saved)
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final int NUMBER_OF_SQUARES = Position.LIMIT * Position.LIMIT;
+    private static final int NUMBER_OF_TYPES = PieceType.values().length;
+
+    /**
+     * One key per type, colour and square
+     */
+    private static final long[] PIECE_KEYS = new long[NUMBER_OF_TYPES * Colour.values().length * NUMBER_OF_SQUARES];
+
+    /**
+     * One key for each combination of the four castling rights
+     */
+    private static final long[] CASTLING_KEYS = new long[16];
+
+    /**
+     * One key per column of the en passant square
+     */
+    private static final long[] EN_PASSANT_KEYS = new long[Position.LIMIT];
+
+    /**
+     * XOR-ed when black is to move
+     */
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    @Contract(pure = true)
+    public static long piece(@NotNull PieceType type, @NotNull Colour colour, int square) {
+        return PIECE_KEYS[((colour.ordinal() * NUMBER_OF_TYPES) + type.ordinal()) * NUMBER_OF_SQUARES + square];
+    }
+
+    /**
+     * @param castlingRights the castling rights as four bits
+     */
+    @Contract(pure = true)
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param square the en passant square ({@link BoardMap#NO_SQUARE} if none)
+     * @return the key of the column of the square (0 if there is no square)
+     */
+    @Contract(pure = true)
+    public static long enPassant(int square) {
+        return square == BoardMap.NO_SQUARE ? 0 : EN_PASSANT_KEYS[square % Position.LIMIT];
+    }
+
+    @Contract(pure = true)
+    public static long blackToMove() {
+        return BLACK_TO_MOVE_KEY;
+    }
+}
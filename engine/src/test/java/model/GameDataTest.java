@@ -0,0 +1,158 @@
+package model;
+
+import model.moves.BaseMove;
+import model.pieces.Piece;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.PieceSquareTables;
+import model.util.Position;
+import model.util.PositionIterator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GameDataTest {
+
+    /**
+     * Verify that looking outward from each square gives the same result as asking every piece if it attacks the square
+     */
+    @Test
+    void isPositionAttacked() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        PositionIterator positionIterator = new PositionIterator();
+
+        while (positionIterator.hasNext()) {
+            Position position = positionIterator.next();
+
+            for (Colour colour : Colour.values()) {
+                boolean expected = false;
+
+                for (Piece piece : gameData.getBoard().iteratePieces()) {
+                    if (piece.getColour() == colour && piece.isAttackingPosition(gameData, position)) expected = true;
+                }
+
+                Assertions.assertEquals(expected, gameData.isPositionAttacked(position, colour), position + " " + colour);
+            }
+        }
+    }
+
+    /**
+     * Play random games and verify that undoing every move gives back the starting board and castling rights
+     */
+    @Test
+    void undoMove() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        String start = gameData.getBoard().toString();
+
+        RandomGames.play(gameData, 7, 10, 100, (position, colour, ply) -> {
+            if (ply > 0) return;
+
+            Assertions.assertEquals(start, position.getBoard().toString());
+            Assertions.assertTrue(position.hasCastlingRight(Colour.WHITE, true));
+            Assertions.assertTrue(position.hasCastlingRight(Colour.BLACK, false));
+            Assertions.assertEquals(BoardMap.NO_SQUARE, position.getEnPassantSquare(Colour.WHITE));
+        });
+    }
+
+    /**
+     * Verify that the incrementally updated hash matches the hash computed from scratch in random games
+     */
+    @Test
+    void hash() {
+        RandomGames.play(new GameData(BoardMap.createStartingBoard()), 11, 10, 150, (gameData, colour, ply) -> {
+            Assertions.assertEquals(gameData.computeHash(), gameData.getHash());
+            Assertions.assertEquals(gameData.computePawnHash(), gameData.getPawnHash());
+        });
+    }
+
+    /**
+     * A position loaded with black to move has the hash of the same position reached by playing
+     */
+    @Test
+    void hashOfLoadedPosition() {
+        GameData played = new GameData(BoardMap.createStartingBoard());
+        new BaseMove(new Position(6, 4), new Position(4, 4)).apply(played);
+
+        GameData loaded = Fen.load("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+
+        Assertions.assertEquals(Colour.BLACK, played.getColourToMove());
+        Assertions.assertEquals(Colour.BLACK, loaded.getColourToMove());
+        Assertions.assertEquals(played.getHash(), loaded.getHash());
+    }
+
+    /**
+     * Verify that the evaluation sums updated by the moves match the sums computed from scratch, and are restored by undo
+     */
+    @Test
+    void scores() {
+        RandomGames.play(new GameData(BoardMap.createStartingBoard()), 17, 10, 150, (gameData, colour, ply) -> {
+            Assertions.assertEquals(gameData.computeMiddlegameScore(), gameData.getMiddlegameScore());
+            Assertions.assertEquals(gameData.computeEndgameScore(), gameData.getEndgameScore());
+            Assertions.assertEquals(gameData.computePhase(), gameData.getPhase());
+
+            //The starting position is symmetric
+            if (ply == 0) {
+                Assertions.assertEquals(0, gameData.getMiddlegameScore());
+                Assertions.assertEquals(0, gameData.getEndgameScore());
+                Assertions.assertEquals(PieceSquareTables.MAX_PHASE, gameData.getPhase());
+            }
+        });
+    }
+
+    /**
+     * Moving the knights out and back gives the same position
+     */
+    @Test
+    void isRepetition() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        long startHash = gameData.getHash();
+
+        new BaseMove(new Position(7, 6), new Position(5, 5)).apply(gameData);
+        new BaseMove(new Position(0, 6), new Position(2, 5)).apply(gameData);
+        Assertions.assertFalse(gameData.isRepetition());
+
+        new BaseMove(new Position(5, 5), new Position(7, 6)).apply(gameData);
+        Assertions.assertNotEquals(startHash, gameData.getHash());
+        new BaseMove(new Position(2, 5), new Position(0, 6)).apply(gameData);
+
+        Assertions.assertEquals(startHash, gameData.getHash());
+        Assertions.assertEquals(startHash, gameData.getHashBefore(0));
+        Assertions.assertTrue(gameData.isRepetition());
+    }
+
+    /**
+     * The copy is in the same position but moves on the copy don't change the original
+     */
+    @Test
+    void copy() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        new BaseMove(new Position(6, 4), new Position(4, 4)).apply(gameData);
+
+        GameData copy = gameData.copy();
+        Assertions.assertEquals(gameData.getHash(), copy.getHash());
+        Assertions.assertEquals(gameData.getPastMoves(), copy.getPastMoves());
+
+        BaseMove move = new BaseMove(new Position(1, 4), new Position(3, 4));
+        move.apply(copy);
+        Assertions.assertNotEquals(gameData.getHash(), copy.getHash());
+        Assertions.assertNull(gameData.getBoard().getPiece(new Position(3, 4)));
+
+        move.undo(copy);
+        Assertions.assertEquals(gameData.getHash(), copy.getHash());
+    }
+
+    @Test
+    void nullMove() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        new BaseMove(new Position(6, 4), new Position(4, 4)).apply(gameData);
+        long hash = gameData.getHash();
+
+        gameData.makeNullMove();
+        Assertions.assertEquals(gameData.computeHash(), gameData.getHash());
+        Assertions.assertEquals(BoardMap.NO_SQUARE, gameData.getEnPassantSquare(Colour.BLACK));
+        Assertions.assertFalse(gameData.isRepetition());
+
+        gameData.undoNullMove();
+        Assertions.assertEquals(hash, gameData.getHash());
+        Assertions.assertEquals(gameData.computeHash(), gameData.getHash());
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import model.moves.EncodedMove;
+import model.moves.Move;
+import model.moves.MoveList;
+import model.pieces.PieceType;
+import model.util.BoardMap;
+import model.util.Colour;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class MoveGeneratorTest {
+
+    /**
+     * Verify that the generator gives the same moves as applying every possible move and checking for check,
+     * along random games from the starting position
+     */
+    @Test
+    void matchesFiltering() {
+        Random random = new Random(0);
+
+        for (int game = 0; game < 20; game++) {
+            GameData gameData = new GameData(BoardMap.createStartingBoard());
+            Colour colour = Colour.WHITE;
+
+            for (int turn = 0; turn < 100; turn++) {
+                Collection<Move> moves = gameData.getPossibleLegalMoves(colour);
+                Assertions.assertEquals(toStrings(gameData.getPossibleLegalMovesByFiltering(colour)), toStrings(moves));
+
+                if (moves.isEmpty()) break;
+
+                List<Move> moveList = new ArrayList<>(moves);
+                moveList.get(random.nextInt(moveList.size())).apply(gameData);
+                colour = colour.getOpposite();
+            }
+        }
+    }
+
+    /**
+     * Verify that the captures are the moves of the full generator that eat a piece or promote to a queen
+     * (promotions to other pieces are left out, even when they eat a piece)
+     */
+    @Test
+    void capturesMatchFullGeneration() {
+        MoveList moves = new MoveList();
+        MoveList captures = new MoveList();
+
+        RandomGames.play(new GameData(BoardMap.createStartingBoard()), 1, 20, 150, (gameData, colour, ply) -> {
+            moves.clear();
+            captures.clear();
+            gameData.generateLegalMoves(colour, moves);
+            gameData.generateLegalCaptures(colour, captures);
+
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                boolean promotion = EncodedMove.getFlag(move) == EncodedMove.PROMOTION;
+                if (promotion ? EncodedMove.getPromotion(move) == PieceType.QUEEN : EncodedMove.isCapture(move))
+                    expected.add(move);
+            }
+
+            Set<Integer> actual = new HashSet<>();
+            for (int i = 0; i < captures.size(); i++) actual.add(captures.get(i));
+
+            Assertions.assertEquals(expected, actual);
+        });
+    }
+
+    /**
+     * Compares moves by their type and description
+     */
+    private static Set<String> toStrings(Collection<Move> moves) {
+        Set<String> strings = new HashSet<>();
+        moves.forEach(move -> strings.add(move.getClass().getSimpleName() + " " + move));
+        return strings;
+    }
+}
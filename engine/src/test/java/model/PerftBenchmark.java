@@ -0,0 +1,63 @@
+package model;
+
+import model.util.Colour;
+
+import java.util.Map;
+
+/**
+ * Counts the reference positions (see {@link PerftPosition}) at every depth and reports the speed of the move generation.
+ * A count that does not match is marked, and the counts of the first moves can then be compared with another engine.
+ * <p>
+ * Arguments: the maximum depth (optional, 5 by default). Or a position and a depth to print the count of every first move
+ * (ex. "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1" 3)
+ */
+public class PerftBenchmark {
+    private static final int DEFAULT_MAX_DEPTH = 5;
+
+    public static void main(String[] args) {
+        if (args.length == 2) {
+            divide(args[0], Integer.parseInt(args[1]));
+            return;
+        }
+
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_DEPTH;
+        long totalNodes = 0;
+        long totalTime = 0;
+        boolean allMatch = true;
+
+        for (PerftPosition position : PerftPosition.values()) {
+            Perft perft = new Perft(Fen.load(position.getFen()));
+            Colour colour = Fen.getColourToMove(position.getFen());
+
+            for (int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++) {
+                long start = System.nanoTime();
+                long count = perft.count(colour, depth);
+                long time = System.nanoTime() - start;
+
+                boolean matches = count == position.getCount(depth);
+                allMatch &= matches;
+                totalNodes += perft.getNodes();
+                totalTime += time;
+
+                System.out.printf("%-19s depth %d: %,15d %s %,8d ms %,12.0f nodes/s%n", position, depth, count,
+                        matches ? "ok   " : "WRONG (expected " + position.getCount(depth) + ")",
+                        time / 1_000_000, perft.getNodes() * 1e9 / time);
+            }
+        }
+
+        System.out.printf("%s: %,d nodes in %,d ms, %,.0f nodes/s%n", allMatch ? "All counts match" : "SOME COUNTS ARE WRONG",
+                totalNodes, totalTime / 1_000_000, totalNodes * 1e9 / totalTime);
+    }
+
+    private static void divide(String fen, int depth) {
+        long start = System.nanoTime();
+        Map<String, Long> counts = new Perft(Fen.load(fen)).divide(Fen.getColourToMove(fen), depth);
+        long time = System.nanoTime() - start;
+
+        counts.forEach((move, count) -> System.out.println(move + ": " + count));
+        System.out.println();
+        System.out.println("Moves: " + counts.size());
+        System.out.println("Positions: " + counts.values().stream().mapToLong(Long::longValue).sum());
+        System.out.println("Time: " + time / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,69 @@
+package model;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reference positions for {@link Perft} with their known counts (from the chess programming wiki, confirmed by several
+ * engines). Together they cover castling, en passant, promotions, checks and pins
+ */
+enum PerftPosition {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            20, 400, 8_902, 197_281, 4_865_609, 119_060_324L),
+    /**
+     * "Kiwipete": many castling moves, pins and en passant captures
+     */
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2_039, 97_862, 4_085_603, 193_690_690L),
+    /**
+     * An endgame with en passant captures that uncover checks along the row
+     */
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2_812, 43_238, 674_624, 11_030_083, 178_633_661L),
+    /**
+     * Promotions (to every piece) and castling rights of black only
+     */
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9_467, 422_333, 15_833_292),
+    /**
+     * Promotions that capture and a knight that gives check
+     */
+    PROMOTION_CAPTURES("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1_486, 62_379, 2_103_487, 89_941_194L),
+    /**
+     * A symmetric middlegame
+     */
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2_079, 89_890, 3_894_594, 164_075_551L),
+    /**
+     * The promotions position with the colours swapped (black to move), which has the same counts
+     */
+    PROMOTIONS_MIRRORED("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+            6, 264, 9_467, 422_333, 15_833_292);
+
+    @NotNull
+    private final String fen;
+
+    /**
+     * The count at depth i + 1
+     */
+    @NotNull
+    private final long[] counts;
+
+    PerftPosition(@NotNull String fen, long... counts) {
+        this.fen = fen;
+        this.counts = counts;
+    }
+
+    @NotNull
+    String getFen() {
+        return fen;
+    }
+
+    int getMaxDepth() {
+        return counts.length;
+    }
+
+    long getCount(int depth) {
+        return counts[depth - 1];
+    }
+}
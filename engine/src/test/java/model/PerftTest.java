@@ -0,0 +1,83 @@
+package model;
+
+import model.util.Colour;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+class PerftTest {
+    /**
+     * The reference counts are checked up to this many positions such that the tests stay fast
+     * (see {@link PerftBenchmark} for the deeper counts)
+     */
+    private static final long MAX_TESTED_COUNT = 500_000;
+
+    @Test
+    void referencePositions() {
+        for (PerftPosition position : PerftPosition.values()) {
+            GameData gameData = Fen.load(position.getFen());
+            Colour colour = Fen.getColourToMove(position.getFen());
+            long hash = gameData.getHash();
+            Perft perft = new Perft(gameData);
+
+            for (int depth = 1; depth <= position.getMaxDepth() && position.getCount(depth) <= MAX_TESTED_COUNT; depth++) {
+                Assertions.assertEquals(position.getCount(depth), perft.count(colour, depth), position + " depth " + depth);
+            }
+
+            //Every move was undone
+            Assertions.assertEquals(hash, gameData.getHash(), position.toString());
+        }
+    }
+
+    /**
+     * The counts of the first moves add up to the count of the position
+     */
+    @Test
+    void divide() {
+        Perft perft = new Perft(Fen.load(PerftPosition.KIWIPETE.getFen()));
+        Map<String, Long> counts = perft.divide(Colour.WHITE, 3);
+
+        Assertions.assertEquals(48, counts.size());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.getCount(3), counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertTrue(counts.containsKey("e1g1"));
+        Assertions.assertTrue(counts.containsKey("e1c1"));
+    }
+
+    /**
+     * The en passant square of the notation allows both pawns next to the white pawn to eat it
+     */
+    @Test
+    void enPassantSquare() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/8/3pPp2/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3";
+        Map<String, Long> counts = new Perft(Fen.load(fen)).divide(Fen.getColourToMove(fen), 1);
+
+        Assertions.assertTrue(counts.containsKey("d4e3"));
+        Assertions.assertTrue(counts.containsKey("f4e3"));
+
+        //Without the en passant square the pawns can only move forward
+        Map<String, Long> withoutEnPassant = new Perft(Fen.load(fen.replace(" e3 ", " - "))).divide(Colour.BLACK, 1);
+        Assertions.assertEquals(counts.size() - 2, withoutEnPassant.size());
+    }
+
+    @Test
+    void promotionNotation() {
+        Map<String, Long> counts = new Perft(Fen.load(PerftPosition.PROMOTIONS.getFen())).divide(Colour.WHITE, 1);
+        Assertions.assertEquals(6, counts.size());
+
+        counts = new Perft(Fen.load("8/P6k/8/8/8/8/8/K7 w - - 0 1")).divide(Colour.WHITE, 1);
+        Assertions.assertTrue(counts.keySet().containsAll(Arrays.asList("a7a8q", "a7a8r", "a7a8b", "a7a8n")));
+    }
+
+    @Test
+    void invalidNotation() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("rnbqkbnr/pppppppp/8/8 w KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1"));
+
+        //Castling rights without the rook or without the king on its starting square
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("4k3/8/8/8/8/8/8/4K3 w K - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load("4k3/8/8/8/8/8/8/R3K3 w K - 0 1"));
+    }
+}
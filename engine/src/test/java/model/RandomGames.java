@@ -0,0 +1,61 @@
+package model;
+
+import model.moves.MoveList;
+import model.util.Colour;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Plays games of random legal moves, used to test what the game data keeps up to date move by move against the same
+ * state computed from scratch
+ */
+public final class RandomGames {
+    private RandomGames() {
+    }
+
+    /**
+     * Called with every position of the games
+     */
+    public interface PositionCheck {
+        /**
+         * @param colour the player to move
+         * @param ply    the number of moves applied since the start of the game (0 at the start and once the game is undone)
+         */
+        void check(@NotNull GameData gameData, @NotNull Colour colour, int ply);
+    }
+
+    /**
+     * Plays the games one after the other on the same game data. Each game starts from the position of the game data with
+     * white to move, applies random moves until the player can't move or maxMoves moves are applied, and then undoes
+     * every move. The position is checked at the start, after each move and after each game is undone
+     *
+     * @param seed the seed of the random moves (the games are the same for the same seed)
+     */
+    public static void play(@NotNull GameData gameData, long seed, int games, int maxMoves, @NotNull PositionCheck check) {
+        Random random = new Random(seed);
+        MoveList moves = new MoveList();
+        check.check(gameData, Colour.WHITE, 0);
+
+        for (int game = 0; game < games; game++) {
+            Colour colour = Colour.WHITE;
+            int ply = 0;
+
+            for (; ply < maxMoves; ply++) {
+                moves.clear();
+                gameData.generateLegalMoves(colour, moves);
+                if (moves.isEmpty()) break;
+
+                gameData.makeMove(moves.get(random.nextInt(moves.size())));
+                colour = colour.getOpposite();
+                check.check(gameData, colour, ply + 1);
+            }
+
+            for (; ply > 0; ply--) {
+                gameData.undoMove();
+            }
+
+            check.check(gameData, Colour.WHITE, 0);
+        }
+    }
+}
@@ -13,4 +13,12 @@ class BaseMoveTest {
                 new BaseMove(new Position(0, 0), new Position(0, 1))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashCodeMatchesEquals() {
+        Assertions.assertEquals(
+                new BaseMove(new Position(6, 4), new Position(4, 4)).hashCode(),
+                new BaseMove(new Position(6, 4), new Position(4, 4)).hashCode()
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package model.moves;
+
+import model.pieces.PieceType;
+import model.util.Position;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EncodedMoveTest {
+
+    /**
+     * Verify that every field can be read back after encoding
+     */
+    @Test
+    void encode() {
+        int from = new Position(1, 0).getIndex();
+        int to = new Position(0, 1).getIndex();
+        int move = EncodedMove.create(from, to, EncodedMove.PROMOTION, PieceType.PAWN, PieceType.ROOK, PieceType.KNIGHT);
+
+        Assertions.assertEquals(from, EncodedMove.getFrom(move));
+        Assertions.assertEquals(to, EncodedMove.getTo(move));
+        Assertions.assertEquals(EncodedMove.PROMOTION, EncodedMove.getFlag(move));
+        Assertions.assertEquals(PieceType.PAWN, EncodedMove.getPiece(move));
+        Assertions.assertEquals(PieceType.ROOK, EncodedMove.getCaptured(move));
+        Assertions.assertEquals(PieceType.KNIGHT, EncodedMove.getPromotion(move));
+        Assertions.assertNotEquals(EncodedMove.NONE, move);
+    }
+
+    /**
+     * Verify that
+     * 1. a move without capture has no captured piece
+     * 2. the adapter creates the right type of move object
+     */
+    @Test
+    void toMove() {
+        int move = EncodedMove.create(new Position(7, 4).getIndex(), new Position(7, 6).getIndex(), EncodedMove.CASTLING, PieceType.KING, null, null);
+
+        Assertions.assertFalse(EncodedMove.isCapture(move)); //1
+        Assertions.assertNull(EncodedMove.getCaptured(move));
+        Assertions.assertTrue(EncodedMove.toMove(move) instanceof CastlingMove); //2
+        Assertions.assertEquals(new Position(7, 6), EncodedMove.toMove(move).getEnd());
+    }
+}
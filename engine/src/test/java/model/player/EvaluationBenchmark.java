@@ -0,0 +1,96 @@
+package model.player;
+
+import model.GameData;
+import model.moves.MoveList;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Network;
+import model.util.RandomNetwork;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Compares the number of evaluations per second of the handcrafted evaluation and of the network.
+ * Like in a search, every evaluation follows a move (which updates the evaluation sums or the network) and is followed
+ * by its undo. The time of the moves alone is measured too.
+ * <p>
+ * Arguments: the weights file of the network (optional, a random network with 256 hidden neurons is used without it)
+ */
+public class EvaluationBenchmark {
+    private static final int GAMES = 200;
+    private static final int MAX_GAME_LENGTH = 120;
+    private static final int ROUNDS = 5;
+
+    /**
+     * The number of evaluations of the last run
+     */
+    private static long evaluations;
+
+    public static void main(String[] args) throws IOException {
+        Network network = args.length > 0 ? Network.load(Paths.get(args[0])) : RandomNetwork.create(256, 1);
+        System.out.println("Network with " + network.getHiddenSize() + " hidden neurons");
+
+        //The first rounds warm up the JIT
+        for (int round = 1; round <= ROUNDS; round++) {
+            long movesOnly = run(null, false);
+            long handcrafted = run(null, true);
+            long withNetwork = run(network, true);
+
+            System.out.printf("Round %d: moves only %,d ns, handcrafted %,d ns, network %,d ns%n",
+                    round, movesOnly, handcrafted, withNetwork);
+            System.out.printf("         handcrafted %,.0f evaluations/s, network %,.0f evaluations/s%n",
+                    getEvaluationsPerSecond(handcrafted - movesOnly), getEvaluationsPerSecond(withNetwork - movesOnly));
+        }
+    }
+
+    private static double getEvaluationsPerSecond(long nanos) {
+        return evaluations * 1e9 / Math.max(nanos, 1);
+    }
+
+    /**
+     * Plays the same random games, and after every move of every position evaluates the position
+     *
+     * @return the time in nanoseconds
+     */
+    private static long run(@Nullable Network network, boolean evaluate) {
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+        long time = 0;
+        long checksum = 0;
+        evaluations = 0;
+
+        for (int game = 0; game < GAMES; game++) {
+            GameData gameData = new GameData(BoardMap.createStartingBoard());
+            Search search = new Search(gameData, new TranspositionTable(1));
+            search.setNetwork(network);
+            Colour colour = Colour.WHITE;
+
+            for (int ply = 0; ply < MAX_GAME_LENGTH; ply++) {
+                moves.clear();
+                gameData.generateLegalMoves(colour, moves);
+                if (moves.isEmpty()) break;
+
+                long start = System.nanoTime();
+
+                for (int i = 0; i < moves.size(); i++) {
+                    gameData.makeMove(moves.get(i));
+                    if (evaluate) checksum += search.evaluate(colour.getOpposite());
+                    gameData.undoMove();
+                }
+
+                time += System.nanoTime() - start;
+                evaluations += moves.size();
+
+                gameData.makeMove(moves.get(random.nextInt(moves.size())));
+                colour = colour.getOpposite();
+            }
+        }
+
+        //Printed such that the JIT can't remove the evaluations
+        if (checksum == 42) System.out.println();
+        return time;
+    }
+}
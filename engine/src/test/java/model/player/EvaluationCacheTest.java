@@ -0,0 +1,55 @@
+package model.player;
+
+import model.GameData;
+import model.util.BoardMap;
+import model.util.Colour;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EvaluationCacheTest {
+
+    @Test
+    void storeAndProbe() {
+        EvaluationCache cache = new EvaluationCache(1);
+        Assertions.assertEquals(EvaluationCache.NOT_FOUND, cache.probe(42));
+
+        //An evaluation of 0 is not mistaken for an empty entry
+        cache.store(42, 0);
+        cache.store(43, -250);
+
+        Assertions.assertEquals(0, cache.probe(42));
+        Assertions.assertEquals(-250, cache.probe(43));
+        Assertions.assertEquals(2, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * A position that falls in the same entry replaces the previous one
+     */
+    @Test
+    void replacement() {
+        EvaluationCache cache = new EvaluationCache(1);
+        long other = 42 + cache.getCapacity();
+
+        cache.store(42, 10);
+        cache.store(other, 20);
+
+        Assertions.assertEquals(EvaluationCache.NOT_FOUND, cache.probe(42));
+        Assertions.assertEquals(20, cache.probe(other));
+    }
+
+    /**
+     * Positions are evaluated again during a search and found in the cache
+     */
+    @Test
+    void searchHitsCache() {
+        EvaluationCache cache = new EvaluationCache(1);
+        Search search = new Search(new GameData(BoardMap.createStartingBoard()), new TranspositionTable(1));
+        search.setEvaluationCache(cache);
+
+        search.findBestMove(Colour.WHITE, SearchLimits.depth(4));
+
+        Assertions.assertTrue(cache.getHits() > 0);
+        Assertions.assertTrue(cache.getMisses() > 0);
+    }
+}
@@ -0,0 +1,62 @@
+package model.player;
+
+import model.GameData;
+import model.RandomGames;
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.util.BoardMap;
+import model.util.Colour;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class MovePickerTest {
+
+    /**
+     * Verify that the stages give every legal move exactly once, with hash moves and killers
+     * that are sometimes from another position, along random games
+     */
+    @Test
+    void picksEveryMoveOnce() {
+        Random random = new Random(3);
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        MoveOrdering ordering = new MoveOrdering(gameData.getBoard());
+        MovePicker picker = new MovePicker(gameData, ordering);
+        MoveList moves = new MoveList();
+
+        //A move of the previous position
+        int[] previousMove = {EncodedMove.NONE};
+
+        RandomGames.play(gameData, 3, 10, 150, (position, colour, ply) -> {
+            moves.clear();
+            position.generateLegalMoves(colour, moves);
+            if (moves.isEmpty()) return;
+
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < moves.size(); i++) expected.add(moves.get(i));
+
+            int move = moves.get(random.nextInt(moves.size()));
+
+            //The hash move is either a legal move or a move of the previous position
+            int hashMove = random.nextBoolean() ? move : previousMove[0];
+            ordering.onCutoff(moves.get(random.nextInt(moves.size())), 1, 1, colour);
+            ordering.onCutoff(previousMove[0] == EncodedMove.NONE ? move : previousMove[0], 1, 1, colour);
+
+            picker.init(colour, hashMove, 1);
+
+            List<Integer> picked = new ArrayList<>();
+            int next;
+            while ((next = picker.next()) != EncodedMove.NONE) picked.add(next);
+
+            Assertions.assertEquals(expected.size(), picked.size());
+            Assertions.assertEquals(expected, new HashSet<>(picked));
+
+            previousMove[0] = move;
+        });
+    }
+}
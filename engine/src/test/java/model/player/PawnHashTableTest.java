@@ -0,0 +1,57 @@
+package model.player;
+
+import model.GameData;
+import model.moves.BaseMove;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.util.Bitboard;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PawnHashTableTest {
+
+    /**
+     * White has a passed pawn, black has two doubled and isolated pawns
+     */
+    @Test
+    void evaluatesStructure() {
+        BoardMap board = new BoardMap();
+        board.add(new Position(7, 4), new King(Colour.WHITE));
+        board.add(new Position(0, 4), new King(Colour.BLACK));
+        board.add(new Position(3, 0), new Pawn(Colour.WHITE));
+        board.add(new Position(1, 6), new Pawn(Colour.BLACK));
+        board.add(new Position(2, 6), new Pawn(Colour.BLACK));
+        board.add(new Position(6, 6), new Pawn(Colour.WHITE));
+
+        GameData gameData = new GameData(board);
+        PawnHashTable table = new PawnHashTable(16);
+        int entry = table.probe(gameData.getPawnHash(), board);
+
+        Assertions.assertEquals(Bitboard.of(new Position(3, 0).getIndex()), table.getPassedPawns(entry, Colour.WHITE));
+        Assertions.assertEquals(0, table.getPassedPawns(entry, Colour.BLACK));
+        Assertions.assertTrue(table.getEndgameScore(entry) > 0);
+    }
+
+    /**
+     * The same pawns are only evaluated once, even if the other pieces moved
+     */
+    @Test
+    void cachesStructure() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        PawnHashTable table = new PawnHashTable(16);
+
+        int entry = table.probe(gameData.getPawnHash(), gameData.getBoard());
+        int score = table.getMiddlegameScore(entry);
+
+        //A knight moves, the pawns don't
+        new BaseMove(new Position(7, 6), new Position(5, 5)).apply(gameData);
+        entry = table.probe(gameData.getPawnHash(), gameData.getBoard());
+
+        Assertions.assertEquals(score, table.getMiddlegameScore(entry));
+        Assertions.assertEquals(1, table.getHits());
+        Assertions.assertEquals(1, table.getMisses());
+    }
+}
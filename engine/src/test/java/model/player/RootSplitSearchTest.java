@@ -0,0 +1,68 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Rook;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RootSplitSearchTest {
+
+    /**
+     * Two searches of the same position give the same move after searching the same number of positions
+     */
+    @Test
+    void isReproducible() {
+        for (boolean youngBrothersWait : new boolean[]{false, true}) {
+            try (RootSplitSearch first = new RootSplitSearch(new GameData(BoardMap.createStartingBoard()), 4, 1, youngBrothersWait);
+                 RootSplitSearch second = new RootSplitSearch(new GameData(BoardMap.createStartingBoard()), 4, 1, youngBrothersWait)) {
+                Assertions.assertEquals(first.findBestMove(Colour.WHITE, SearchLimits.depth(4)),
+                        second.findBestMove(Colour.WHITE, SearchLimits.depth(4)));
+                Assertions.assertEquals(first.getNodes(), second.getNodes());
+            }
+        }
+    }
+
+    /**
+     * The tables are reused but cleared, so searching the same position again gives the same result (and the same use
+     * of the tables)
+     */
+    @Test
+    void isReproducibleWhenReused() {
+        try (RootSplitSearch search = new RootSplitSearch(new GameData(BoardMap.createStartingBoard()), 2, 1, true)) {
+            int move = search.findBestMove(Colour.WHITE, SearchLimits.depth(4));
+            long nodes = search.getNodes();
+            String statistics = search.getTranspositionTableStatistics();
+
+            Assertions.assertEquals(move, search.findBestMove(Colour.WHITE, SearchLimits.depth(4)));
+            Assertions.assertEquals(nodes, search.getNodes());
+            Assertions.assertEquals(statistics, search.getTranspositionTableStatistics());
+        }
+    }
+
+    /**
+     * The rook can checkmate on the last row
+     */
+    @Test
+    void findsCheckmate() {
+        BoardMap board = new BoardMap();
+        board.add(new Position(7, 6), new King(Colour.WHITE));
+        board.add(new Position(7, 0), new Rook(Colour.WHITE));
+        board.add(new Position(0, 6), new King(Colour.BLACK));
+        board.add(new Position(1, 5), new Pawn(Colour.BLACK));
+        board.add(new Position(1, 6), new Pawn(Colour.BLACK));
+        board.add(new Position(1, 7), new Pawn(Colour.BLACK));
+
+        try (RootSplitSearch search = new RootSplitSearch(new GameData(board), 2, 1, true)) {
+            int move = search.findBestMove(Colour.WHITE, SearchLimits.depth(3));
+
+            Assertions.assertEquals(new Position(7, 0).getIndex(), EncodedMove.getFrom(move));
+            Assertions.assertEquals(new Position(0, 0).getIndex(), EncodedMove.getTo(move));
+        }
+    }
+}
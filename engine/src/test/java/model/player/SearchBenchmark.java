@@ -0,0 +1,82 @@
+package model.player;
+
+import model.Fen;
+import model.Perft;
+import model.util.Colour;
+
+/**
+ * Searches fixed positions to a fixed depth with each selective search technique (see {@link SearchSettings}) on its own,
+ * with none and with all of them, and reports the number of positions searched, the time and the use of the pawn hash
+ * table and of the evaluation cache. The root moves are not shuffled and every search has new tables, so the numbers
+ * can be reproduced.
+ * <p>
+ * Arguments: the depth (optional, 7 by default)
+ */
+public class SearchBenchmark {
+    private static final int DEFAULT_DEPTH = 7;
+
+    private static final int TRANSPOSITION_TABLE_SIZE = 16;
+
+    private static final int EVALUATION_CACHE_SIZE = 4;
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    private static final String[] SETTING_NAMES = {"none", "null move", "late move reductions", "futility pruning",
+            "razoring", "all"};
+
+    private static final SearchSettings[] SETTINGS = {
+            SearchSettings.NONE,
+            SearchSettings.NONE.withNullMove(true),
+            SearchSettings.NONE.withLateMoveReductions(true),
+            SearchSettings.NONE.withFutilityPruning(true),
+            SearchSettings.NONE.withRazoring(true),
+            SearchSettings.DEFAULT
+    };
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+
+        for (int i = 0; i < SETTINGS.length; i++) {
+            long totalNodes = 0;
+            long totalTime = 0;
+            long pawnHits = 0;
+            long pawnMisses = 0;
+            long cacheHits = 0;
+            long cacheMisses = 0;
+
+            for (int position = 0; position < POSITIONS.length; position++) {
+                Search search = new Search(Fen.load(POSITIONS[position]), new TranspositionTable(TRANSPOSITION_TABLE_SIZE));
+                EvaluationCache evaluationCache = new EvaluationCache(EVALUATION_CACHE_SIZE);
+                search.setEvaluationCache(evaluationCache);
+                search.setSettings(SETTINGS[i]);
+                search.setShuffleRootMoves(false);
+                Colour colour = Fen.getColourToMove(POSITIONS[position]);
+
+                long start = System.nanoTime();
+                int move = search.findBestMove(colour, SearchLimits.depth(depth));
+                long time = System.nanoTime() - start;
+
+                totalNodes += search.getNodes();
+                totalTime += time;
+                pawnHits += search.getPawnHashTable().getHits();
+                pawnMisses += search.getPawnHashTable().getMisses();
+                cacheHits += evaluationCache.getHits();
+                cacheMisses += evaluationCache.getMisses();
+
+                System.out.printf("%-20s position %d depth %d: %-5s %,13d nodes %,8d ms%n", SETTING_NAMES[i], position + 1,
+                        depth, Perft.toCoordinates(move), search.getNodes(), time / 1_000_000);
+            }
+
+            System.out.printf("%-20s total: %,d nodes in %,d ms, %,.0f nodes/s%n", SETTING_NAMES[i], totalNodes,
+                    totalTime / 1_000_000, totalNodes * 1e9 / totalTime);
+            System.out.printf("%-20s pawn hash table: %,d hits, %,d misses%n", SETTING_NAMES[i], pawnHits, pawnMisses);
+            System.out.printf("%-20s evaluation cache: %,d hits, %,d misses%n%n", SETTING_NAMES[i], cacheHits, cacheMisses);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Queen;
+import model.pieces.Rook;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SearchTest {
+
+    /**
+     * The rook can checkmate on the last row
+     */
+    @Test
+    void findsCheckmate() {
+        Search search = new Search(new GameData(createBackRankMate()), new TranspositionTable(1));
+        int move = search.findBestMove(Colour.WHITE, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new Position(7, 0).getIndex(), EncodedMove.getFrom(move));
+        Assertions.assertEquals(new Position(0, 0).getIndex(), EncodedMove.getTo(move));
+    }
+
+    /**
+     * Each iteration reports a principal variation that starts with the best move and is legal move after move
+     */
+    @Test
+    void reportsPrincipalVariation() {
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        Search search = new Search(gameData, new TranspositionTable(1));
+        List<SearchInfo> iterations = new ArrayList<>();
+        search.setListener(iterations::add);
+
+        int move = search.findBestMove(Colour.WHITE, SearchLimits.depth(5));
+
+        Assertions.assertEquals(5, iterations.size());
+        Assertions.assertEquals(5, iterations.get(4).getDepth());
+
+        int[] principalVariation = search.getPrincipalVariation();
+        Assertions.assertEquals(move, principalVariation[0]);
+
+        Colour colour = Colour.WHITE;
+        for (int pvMove : principalVariation) {
+            Assertions.assertTrue(gameData.isLegal(colour, pvMove));
+            gameData.makeMove(pvMove);
+            colour = colour.getOpposite();
+        }
+    }
+
+    /**
+     * The rook should eat the queen that is not defended
+     */
+    @Test
+    void eatsUndefendedQueen() {
+        BoardMap board = new BoardMap();
+        board.add(new Position(7, 4), new King(Colour.WHITE));
+        board.add(new Position(4, 0), new Rook(Colour.WHITE));
+        board.add(new Position(0, 4), new King(Colour.BLACK));
+        board.add(new Position(4, 6), new Queen(Colour.BLACK));
+
+        Search search = new Search(new GameData(board), new TranspositionTable(1));
+        int move = search.findBestMove(Colour.WHITE, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new Position(4, 6).getIndex(), EncodedMove.getTo(move));
+    }
+
+    /**
+     * The search stops at the node limit and still returns a legal move
+     */
+    @Test
+    void stopsAtNodeLimit() {
+        Search search = new Search(new GameData(BoardMap.createStartingBoard()), new TranspositionTable(1));
+        int move = search.findBestMove(Colour.WHITE, SearchLimits.nodes(500));
+
+        Assertions.assertNotEquals(EncodedMove.NONE, move);
+        Assertions.assertTrue(search.getNodes() <= 500);
+    }
+
+    /**
+     * The selective search techniques search fewer positions for the same depth and don't miss the checkmate
+     */
+    @Test
+    void pruningSearchesFewerPositions() {
+        Search fullWidth = new Search(new GameData(BoardMap.createStartingBoard()), new TranspositionTable(1));
+        fullWidth.setSettings(SearchSettings.NONE);
+        fullWidth.findBestMove(Colour.WHITE, SearchLimits.depth(6));
+
+        Search selective = new Search(new GameData(BoardMap.createStartingBoard()), new TranspositionTable(1));
+        selective.findBestMove(Colour.WHITE, SearchLimits.depth(6));
+
+        Assertions.assertTrue(selective.getNodes() < fullWidth.getNodes());
+
+        Search mate = new Search(new GameData(createBackRankMate()), new TranspositionTable(1));
+        int move = mate.findBestMove(Colour.WHITE, SearchLimits.depth(5));
+
+        Assertions.assertEquals(new Position(7, 0).getIndex(), EncodedMove.getFrom(move));
+        Assertions.assertEquals(new Position(0, 0).getIndex(), EncodedMove.getTo(move));
+    }
+
+    @Test
+    void stopsAtTimeLimit() {
+        Search search = new Search(new GameData(BoardMap.createStartingBoard()), new TranspositionTable(1));
+
+        long start = System.currentTimeMillis();
+        int move = search.findBestMove(Colour.WHITE, SearchLimits.time(200));
+
+        Assertions.assertNotEquals(EncodedMove.NONE, move);
+        Assertions.assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    /**
+     * White's rook can checkmate on the last row, behind black's pawns
+     */
+    private static BoardMap createBackRankMate() {
+        BoardMap board = new BoardMap();
+        board.add(new Position(7, 6), new King(Colour.WHITE));
+        board.add(new Position(7, 0), new Rook(Colour.WHITE));
+        board.add(new Position(0, 6), new King(Colour.BLACK));
+        board.add(new Position(1, 5), new Pawn(Colour.BLACK));
+        board.add(new Position(1, 6), new Pawn(Colour.BLACK));
+        board.add(new Position(1, 7), new Pawn(Colour.BLACK));
+        return board;
+    }
+}
@@ -0,0 +1,80 @@
+package model.player;
+
+import model.GameData;
+import model.moves.EncodedMove;
+import model.moves.MoveList;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Queen;
+import model.pieces.Rook;
+import model.util.BoardMap;
+import model.util.Colour;
+import model.util.Position;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StaticExchangeTest {
+
+    @Test
+    void undefendedPiece() {
+        BoardMap board = createBoardWithKings();
+        board.add(new Position(4, 4), new Queen(Colour.WHITE));
+        board.add(new Position(3, 3), new Pawn(Colour.BLACK));
+
+        Assertions.assertEquals(1, evaluate(board, new Position(4, 4), new Position(3, 3)));
+    }
+
+    /**
+     * The queen eats a pawn and is eaten back by another pawn
+     */
+    @Test
+    void defendedPiece() {
+        BoardMap board = createBoardWithKings();
+        board.add(new Position(4, 4), new Queen(Colour.WHITE));
+        board.add(new Position(3, 3), new Pawn(Colour.BLACK));
+        board.add(new Position(2, 2), new Pawn(Colour.BLACK));
+
+        Assertions.assertEquals(1 - 8, evaluate(board, new Position(4, 4), new Position(3, 3)));
+    }
+
+    /**
+     * The rook behind the rook that eats can eat back once the first rook left
+     */
+    @Test
+    void xRay() {
+        BoardMap board = createBoardWithKings();
+        board.add(new Position(7, 0), new Rook(Colour.WHITE));
+        board.add(new Position(6, 0), new Rook(Colour.WHITE));
+        board.add(new Position(2, 0), new Rook(Colour.BLACK));
+        board.add(new Position(0, 0), new Rook(Colour.BLACK));
+
+        Assertions.assertEquals(5, evaluate(board, new Position(6, 0), new Position(2, 0)));
+
+        //Without the rook behind, the rooks are only traded
+        board.removePiece(new Position(7, 0));
+        Assertions.assertEquals(0, evaluate(board, new Position(6, 0), new Position(2, 0)));
+    }
+
+    @NotNull
+    private static BoardMap createBoardWithKings() {
+        BoardMap board = new BoardMap();
+        board.add(new Position(7, 7), new King(Colour.WHITE));
+        board.add(new Position(0, 7), new King(Colour.BLACK));
+        return board;
+    }
+
+    private static int evaluate(@NotNull BoardMap board, @NotNull Position start, @NotNull Position end) {
+        MoveList moves = new MoveList();
+        new GameData(board).generateLegalMoves(Colour.WHITE, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            if (EncodedMove.getFrom(move) == start.getIndex() && EncodedMove.getTo(move) == end.getIndex())
+                return new StaticExchange(board).evaluate(move);
+        }
+
+        throw new IllegalArgumentException("Not a legal move");
+    }
+}
@@ -0,0 +1,75 @@
+package model.player;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+
+    @Test
+    void capacityIsPowerOfTwo() {
+        TranspositionTable table = new TranspositionTable(1);
+        int capacity = table.getCapacity();
+
+        Assertions.assertEquals(Integer.highestOneBit(capacity), capacity);
+        Assertions.assertTrue(capacity * 16L <= 1024 * 1024);
+    }
+
+    @Test
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(TranspositionTable.NOT_FOUND, table.probe(42));
+
+        table.store(42, 3, TranspositionTable.LOWER_BOUND, -7, 1234);
+        long entry = table.probe(42);
+
+        Assertions.assertNotEquals(TranspositionTable.NOT_FOUND, entry);
+        Assertions.assertEquals(3, TranspositionTable.getDepth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        Assertions.assertEquals(-7, TranspositionTable.getScore(entry));
+        Assertions.assertEquals(1234, TranspositionTable.getMove(entry));
+    }
+
+    @Test
+    void counters() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.getCapacity() / 2;
+
+        table.probe(7);
+        table.store(7, 1, TranspositionTable.EXACT, 0, 0);
+        table.store(7, 2, TranspositionTable.EXACT, 0, 0); //Same position, not a collision
+        table.probe(7);
+
+        //The bucket is full so the third position replaces one of the others
+        table.store(7 + buckets, 1, TranspositionTable.EXACT, 0, 0);
+        table.store(7 + 2 * buckets, 1, TranspositionTable.EXACT, 0, 0);
+
+        Assertions.assertEquals(1, table.getHits());
+        Assertions.assertEquals(1, table.getMisses());
+        Assertions.assertEquals(1, table.getCollisions());
+    }
+
+    /**
+     * When a bucket is full the entry with the lowest depth of the same search is replaced
+     */
+    @Test
+    void depthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.getCapacity() / 2;
+
+        //Three hashes that fall in the same bucket
+        table.store(5, 4, TranspositionTable.EXACT, 0, 0);
+        table.store(5 + buckets, 1, TranspositionTable.EXACT, 0, 0);
+        table.store(5 + 2 * buckets, 2, TranspositionTable.EXACT, 0, 0);
+
+        Assertions.assertNotEquals(TranspositionTable.NOT_FOUND, table.probe(5));
+        Assertions.assertEquals(TranspositionTable.NOT_FOUND, table.probe(5 + buckets));
+        Assertions.assertNotEquals(TranspositionTable.NOT_FOUND, table.probe(5 + 2 * buckets));
+
+        //In a new search the old entries are replaced first, even if they are deeper
+        table.newSearch();
+        table.store(5 + 3 * buckets, 1, TranspositionTable.EXACT, 0, 0);
+        Assertions.assertNotEquals(TranspositionTable.NOT_FOUND, table.probe(5 + 3 * buckets));
+        Assertions.assertEquals(1, (table.probe(5) == TranspositionTable.NOT_FOUND ? 1 : 0)
+                + (table.probe(5 + 2 * buckets) == TranspositionTable.NOT_FOUND ? 1 : 0));
+    }
+}
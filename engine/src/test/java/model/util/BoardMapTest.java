@@ -2,6 +2,7 @@ package model.util;
 
 import model.pieces.King;
 import model.pieces.Piece;
+import model.pieces.PieceType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -55,4 +56,31 @@ class BoardMapTest {
         Assertions.assertNull(boardMap.getPiece(start));
         Assertions.assertNull(boardMap.getPosition(piece));
     }
-}
\ No newline at end of file
+
+    /**
+     * Verify that the bitboards follow the piece when
+     * 1. the piece is added
+     * 2. the piece is moved
+     * 3. the piece is removed
+     */
+    @Test
+    void bitboards() {
+        Piece piece = new King(Colour.WHITE);
+        Position start = new Position(7, 4);
+        Position end = new Position(6, 4);
+
+        BoardMap boardMap = new BoardMap();
+        boardMap.add(start, piece);
+
+        Assertions.assertEquals(Bitboard.of(start.getIndex()), boardMap.getBitboard(PieceType.KING, Colour.WHITE)); //1
+        Assertions.assertEquals(Bitboard.of(start.getIndex()), boardMap.getOccupancy(Colour.WHITE));
+        Assertions.assertEquals(Bitboard.EMPTY, boardMap.getOccupancy(Colour.BLACK));
+
+        boardMap.movePiece(end, piece);
+        Assertions.assertEquals(Bitboard.of(end.getIndex()), boardMap.getBitboard(PieceType.KING, Colour.WHITE)); //2
+        Assertions.assertEquals(end, boardMap.getPosition(piece));
+
+        boardMap.removePiece(piece);
+        Assertions.assertEquals(Bitboard.EMPTY, boardMap.getOccupancy()); //3
+    }
+}
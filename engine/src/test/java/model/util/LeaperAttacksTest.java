@@ -0,0 +1,32 @@
+package model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LeaperAttacksTest {
+
+    /**
+     * Verify that the knight and king attacks do not wrap around the edges of the board
+     */
+    @Test
+    void corner() {
+        int corner = new Position(0, 7).getIndex();
+
+        Assertions.assertEquals(
+                Bitboard.of(new Position(1, 5).getIndex()) | Bitboard.of(new Position(2, 6).getIndex()),
+                LeaperAttacks.knightAttacks(corner)
+        );
+        Assertions.assertEquals(3, Bitboard.count(LeaperAttacks.kingAttacks(corner)));
+    }
+
+    /**
+     * Verify that white pawns attack upwards and black pawns attack downwards
+     */
+    @Test
+    void pawnAttacks() {
+        int square = new Position(4, 0).getIndex();
+
+        Assertions.assertEquals(Bitboard.of(new Position(3, 1).getIndex()), LeaperAttacks.pawnAttacks(Colour.WHITE, square));
+        Assertions.assertEquals(Bitboard.of(new Position(5, 1).getIndex()), LeaperAttacks.pawnAttacks(Colour.BLACK, square));
+    }
+}
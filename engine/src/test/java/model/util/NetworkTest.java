@@ -0,0 +1,132 @@
+package model.util;
+
+import model.GameData;
+import model.RandomGames;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class NetworkTest {
+
+    /**
+     * A network written to a file and loaded back gives the same evaluations
+     */
+    @Test
+    void writeAndLoad() throws IOException {
+        Network network = RandomNetwork.create(32, 3);
+        Path file = Files.createTempFile("network", ".nnue");
+
+        try {
+            network.write(file);
+            Network loaded = Network.load(file);
+
+            BoardMap board = BoardMap.createStartingBoard();
+            for (Colour colour : Colour.values()) {
+                Assertions.assertEquals(new Accumulator(network, board).evaluate(colour),
+                        new Accumulator(loaded, board).evaluate(colour));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void loadRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("network", ".nnue");
+
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+            Assertions.assertThrows(IOException.class, () -> Network.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * The accumulator updated by the moves matches an accumulator computed from scratch, and is restored by undo
+     */
+    @Test
+    void incrementalUpdates() {
+        Network network = RandomNetwork.create(16, 5);
+        GameData gameData = new GameData(BoardMap.createStartingBoard());
+        gameData.setNetwork(network);
+        int startScore = gameData.getAccumulator().evaluate(Colour.WHITE);
+
+        RandomGames.play(gameData, 23, 10, 150, (position, colour, ply) -> {
+            Accumulator expected = new Accumulator(network, position.getBoard());
+            Assertions.assertEquals(expected.evaluate(colour), position.getAccumulator().evaluate(colour));
+            Assertions.assertEquals(expected.evaluate(colour.getOpposite()), position.getAccumulator().evaluate(colour.getOpposite()));
+
+            if (ply == 0) Assertions.assertEquals(startScore, position.getAccumulator().evaluate(Colour.WHITE));
+        });
+    }
+
+    /**
+     * Black sees the board flipped with the colours swapped, so the starting position is worth the same to both players
+     */
+    @Test
+    void symmetry() {
+        Accumulator accumulator = new Accumulator(RandomNetwork.create(32, 9), BoardMap.createStartingBoard());
+        Assertions.assertEquals(accumulator.evaluate(Colour.WHITE), accumulator.evaluate(Colour.BLACK));
+    }
+
+    /**
+     * Weights so large that a single piece overflows 16 bits are rejected
+     */
+    @Test
+    void rejectsExtremeWeights() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> createUniform(Short.MAX_VALUE, (short) 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> createUniform(Short.MIN_VALUE, (short) 0));
+    }
+
+    /**
+     * The largest weights that can't overflow with the pieces of a board are accepted and the hidden neurons don't wrap
+     * around, one more is rejected
+     */
+    @Test
+    void acceptsWeightsAtTheLimit() {
+        int weight = (Short.MAX_VALUE - 31) / Network.MAX_PIECES;
+        Network network = createUniform((short) weight, (short) 31);
+
+        //Every hidden neuron of both players is clipped to the limit, wrapping around would give negative neurons
+        Accumulator accumulator = new Accumulator(network, BoardMap.createStartingBoard());
+        Assertions.assertEquals(2 * 400 / Network.OUTPUT_WEIGHT_SCALE, accumulator.evaluate(Colour.WHITE));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> createUniform((short) weight, (short) 32));
+    }
+
+    /**
+     * A file with weights that could overflow is not loaded
+     */
+    @Test
+    void loadRejectsExtremeWeights() throws IOException {
+        Network network = createUniform((short) ((Short.MAX_VALUE - 31) / Network.MAX_PIECES), (short) 31);
+        Path file = Files.createTempFile("network", ".nnue");
+
+        try {
+            network.write(file);
+
+            //The bias of the hidden neuron follows the header (3 ints) and the feature weights
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[3 * Integer.BYTES + Network.INPUTS * Short.BYTES] = 32;
+            Files.write(file, bytes);
+
+            Assertions.assertThrows(IOException.class, () -> Network.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * @return a network with a single hidden neuron where every feature has the same weight and the output weights are 1
+     */
+    private static Network createUniform(short weight, short bias) {
+        short[] featureWeights = new short[Network.INPUTS];
+        Arrays.fill(featureWeights, weight);
+        return new Network(1, featureWeights, new short[]{bias}, new byte[]{1, 1}, 0);
+    }
+}
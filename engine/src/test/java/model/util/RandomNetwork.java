@@ -0,0 +1,36 @@
+package model.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * Creates networks with random weights, used to test and benchmark the network without a trained weights file
+ */
+public final class RandomNetwork {
+    private RandomNetwork() {
+    }
+
+    /**
+     * The weights are small enough that the first layer can't overflow
+     */
+    @NotNull
+    public static Network create(int hiddenSize, long seed) {
+        Random random = new Random(seed);
+
+        short[] featureWeights = new short[Network.INPUTS * hiddenSize];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(65) - 32);
+        }
+
+        short[] biases = new short[hiddenSize];
+        for (int i = 0; i < biases.length; i++) {
+            biases[i] = (short) random.nextInt(Network.ACTIVATION_LIMIT);
+        }
+
+        byte[] outputWeights = new byte[2 * hiddenSize];
+        random.nextBytes(outputWeights);
+
+        return new Network(hiddenSize, featureWeights, biases, outputWeights, random.nextInt(1000) - 500);
+    }
+}
@@ -0,0 +1,44 @@
+package model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class SlidingAttacksTest {
+
+    /**
+     * Verify that
+     * 1. a rook in the corner of an empty board attacks its row and column
+     * 2. a blocker stops the ray but is itself attacked
+     */
+    @Test
+    void rookAttacks() {
+        int corner = new Position(7, 0).getIndex();
+        Assertions.assertEquals(14, Bitboard.count(SlidingAttacks.rookAttacks(corner, Bitboard.EMPTY))); //1
+
+        long blocker = Bitboard.of(new Position(5, 0).getIndex());
+        long attacks = SlidingAttacks.rookAttacks(corner, blocker);
+        Assertions.assertTrue(Bitboard.contains(attacks, new Position(5, 0).getIndex())); //2
+        Assertions.assertFalse(Bitboard.contains(attacks, new Position(4, 0).getIndex()));
+    }
+
+    /**
+     * Verify that the table lookups match walking the rays for random occupancies on every square
+     */
+    @Test
+    void matchesRayWalk() {
+        Random random = new Random(0);
+
+        for (int i = 0; i < 1000; i++) {
+            long occupancy = random.nextLong() & random.nextLong();
+
+            for (int square = 0; square < Position.LIMIT * Position.LIMIT; square++) {
+                Assertions.assertEquals(SlidingAttacks.slowAttacks(SlidingAttacks.ROOK_DIRECTIONS, square, occupancy),
+                        SlidingAttacks.rookAttacks(square, occupancy));
+                Assertions.assertEquals(SlidingAttacks.slowAttacks(SlidingAttacks.BISHOP_DIRECTIONS, square, occupancy),
+                        SlidingAttacks.bishopAttacks(square, occupancy));
+            }
+        }
+    }
+}
@@ -168,12 +168,7 @@ class BoardPane extends Pane {
 
 
         //Calculate possible moves and highlight those moves
-        highlightController.select(position,
-                gameData.filterOnlyLegal(
-                        pieceClicked.generatePossibleMoves(gameData, position),
-                        pieceClicked.getColour()
-                )
-        );
+        highlightController.select(position, gameData.getPossibleLegalMoves(position));
     }
 
     /**